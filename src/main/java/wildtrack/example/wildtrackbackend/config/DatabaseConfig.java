@@ -5,7 +5,9 @@ import javax.sql.DataSource;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 
 @Configuration
 public class DatabaseConfig {
@@ -19,13 +21,72 @@ public class DatabaseConfig {
     @Value("${spring.datasource.password}")
     private String password;
 
+    // Pool sizing, see spring.datasource.hikari.* in application.properties
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int maximumPoolSize;
+
+    @Value("${spring.datasource.hikari.minimum-idle:2}")
+    private int minimumIdle;
+
+    @Value("${spring.datasource.hikari.connection-timeout:30000}")
+    private long connectionTimeout;
+
+    @Value("${spring.datasource.hikari.idle-timeout:600000}")
+    private long idleTimeout;
+
+    @Value("${spring.datasource.hikari.max-lifetime:1800000}")
+    private long maxLifetime;
+
+    @Value("${spring.datasource.hikari.keepalive-time:300000}")
+    private long keepaliveTime;
+
+    @Value("${spring.datasource.hikari.validation-timeout:5000}")
+    private long validationTimeout;
+
     @Bean
-    public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setUrl(url);
-        dataSource.setUsername(username);
-        dataSource.setPassword(password);
-        dataSource.setDriverClassName("com.mysql.cj.jdbc.Driver");
-        return dataSource;
+    public PoolMetricsTracker poolMetricsTracker() {
+        return new PoolMetricsTracker();
+    }
+
+    @Bean(destroyMethod = "close")
+    public DataSource dataSource(PoolMetricsTracker poolMetricsTracker) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("wildtrack-pool");
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setDriverClassName("com.mysql.cj.jdbc.Driver");
+
+        config.setMaximumPoolSize(maximumPoolSize);
+        config.setMinimumIdle(minimumIdle);
+        config.setConnectionTimeout(connectionTimeout);
+        config.setIdleTimeout(idleTimeout);
+        config.setMaxLifetime(maxLifetime);
+
+        // Start the pool without blocking on a first connection; idle
+        // connections are opened in the background so the pool is warm
+        // before the morning time-in rush
+        config.setInitializationFailTimeout(-1);
+
+        // Connections are validated with JDBC4 isValid() on checkout and
+        // pinged while idle so the server/proxy doesn't silently drop them
+        config.setKeepaliveTime(keepaliveTime);
+        config.setValidationTimeout(validationTimeout);
+
+        // Connector/J statement caching and batch rewriting
+        config.addDataSourceProperty("cachePrepStmts", "true");
+        config.addDataSourceProperty("prepStmtCacheSize", "250");
+        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        config.addDataSourceProperty("useServerPrepStmts", "true");
+        config.addDataSourceProperty("rewriteBatchedStatements", "true");
+        config.addDataSourceProperty("useLocalSessionState", "true");
+        config.addDataSourceProperty("cacheResultSetMetadata", "true");
+        config.addDataSourceProperty("cacheServerConfiguration", "true");
+        config.addDataSourceProperty("elideSetAutoCommits", "true");
+        config.addDataSourceProperty("maintainTimeStats", "false");
+
+        config.setMetricsTrackerFactory(poolMetricsTracker);
+
+        return new HikariDataSource(config);
     }
 }
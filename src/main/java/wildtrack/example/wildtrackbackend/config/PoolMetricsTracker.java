@@ -0,0 +1,77 @@
+package wildtrack.example.wildtrackbackend.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+/**
+ * Collects connection pool statistics from Hikari so the pool can be sized
+ * from real traffic: active/idle/pending connections plus acquire and usage
+ * times since startup.
+ */
+public class PoolMetricsTracker implements MetricsTrackerFactory, IMetricsTracker {
+
+    private volatile PoolStats poolStats;
+
+    private final AtomicLong acquireCount = new AtomicLong();
+    private final AtomicLong acquireNanosTotal = new AtomicLong();
+    private final AtomicLong acquireNanosMax = new AtomicLong();
+    private final AtomicLong usageMillisTotal = new AtomicLong();
+    private final AtomicLong usageMillisMax = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolStats = poolStats;
+        return this;
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquireCount.incrementAndGet();
+        acquireNanosTotal.addAndGet(elapsedAcquiredNanos);
+        acquireNanosMax.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+    }
+
+    @Override
+    public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+        usageMillisTotal.addAndGet(elapsedBorrowedMillis);
+        usageMillisMax.accumulateAndGet(elapsedBorrowedMillis, Math::max);
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        timeoutCount.incrementAndGet();
+    }
+
+    /**
+     * Current pool state and cumulative timings
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        PoolStats stats = poolStats;
+        // The pool starts on the first connection request
+        metrics.put("initialized", stats != null);
+        metrics.put("activeConnections", stats != null ? stats.getActiveConnections() : 0);
+        metrics.put("idleConnections", stats != null ? stats.getIdleConnections() : 0);
+        metrics.put("totalConnections", stats != null ? stats.getTotalConnections() : 0);
+        metrics.put("pendingThreads", stats != null ? stats.getPendingThreads() : 0);
+        metrics.put("maxConnections", stats != null ? stats.getMaxConnections() : 0);
+
+        long count = acquireCount.get();
+        metrics.put("acquireCount", count);
+        metrics.put("acquireAvgMillis", count > 0
+                ? TimeUnit.NANOSECONDS.toMicros(acquireNanosTotal.get() / count) / 1000.0
+                : 0.0);
+        metrics.put("acquireMaxMillis", TimeUnit.NANOSECONDS.toMicros(acquireNanosMax.get()) / 1000.0);
+        metrics.put("usageAvgMillis", count > 0 ? usageMillisTotal.get() / (double) count : 0.0);
+        metrics.put("usageMaxMillis", usageMillisMax.get());
+        metrics.put("connectionTimeouts", timeoutCount.get());
+        return metrics;
+    }
+}
@@ -0,0 +1,89 @@
+package wildtrack.example.wildtrackbackend.config;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+
+/**
+ * Verifies at startup that every index declared in an entity's
+ * {@code @Table(indexes = ...)} exists in the database.
+ * The annotations are the single source of the index set and ddl-auto=update
+ * creates them; this check reports any that are missing (for example when
+ * the schema is managed by hand or the DDL user lacks privileges).
+ */
+@Component
+public class SchemaIndexCheck {
+    private static final Logger logger = Logger.getLogger(SchemaIndexCheck.class.getName());
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${wildtrack.schema.index-check.enabled:true}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkIndexes() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            List<String> missing = findMissingIndexes();
+            if (missing.isEmpty()) {
+                logger.info("Schema index check passed: all declared indexes are present");
+            } else {
+                logger.warning("Schema index check found " + missing.size() + " missing index(es): "
+                        + String.join(", ", missing));
+            }
+        } catch (Exception e) {
+            logger.warning("Schema index check could not run: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Declared indexes that are not present, as "table.index_name"
+     */
+    public List<String> findMissingIndexes() {
+        List<String> missing = new ArrayList<>();
+
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            Table table = entity.getJavaType().getAnnotation(Table.class);
+            if (table == null || table.indexes().length == 0) {
+                continue;
+            }
+
+            Set<String> existing = new HashSet<>();
+            for (String name : jdbcTemplate.queryForList(
+                    "SELECT DISTINCT INDEX_NAME FROM information_schema.statistics " +
+                            "WHERE table_schema = DATABASE() AND table_name = ?",
+                    String.class, table.name())) {
+                existing.add(name.toLowerCase());
+            }
+
+            for (Index index : table.indexes()) {
+                if (!existing.contains(index.name().toLowerCase())) {
+                    missing.add(table.name() + "." + index.name());
+                }
+            }
+        }
+
+        return missing;
+    }
+}
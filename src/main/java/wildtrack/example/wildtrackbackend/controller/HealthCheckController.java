@@ -1,11 +1,16 @@
 package wildtrack.example.wildtrackbackend.controller;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.CrossOrigin;
 
+import wildtrack.example.wildtrackbackend.config.PoolMetricsTracker;
+import wildtrack.example.wildtrackbackend.service.AutoTimeOutService;
+import wildtrack.example.wildtrackbackend.service.OutboxDispatcher;
+
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -15,6 +20,15 @@ import java.util.Map;
 
 public class HealthCheckController {
 
+    @Autowired
+    private PoolMetricsTracker poolMetricsTracker;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private AutoTimeOutService autoTimeOutService;
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, String>> healthCheck() {
         Map<String, String> response = new HashMap<>();
@@ -22,4 +36,22 @@ public class HealthCheckController {
         response.put("timestamp", new Date().toString());
         return ResponseEntity.ok(response);
     }
+
+    // Connection pool usage for sizing the datasource
+    @GetMapping("/health/datasource")
+    public ResponseEntity<Map<String, Object>> datasourceMetrics() {
+        return ResponseEntity.ok(poolMetricsTracker.snapshot());
+    }
+
+    // Outbox backlog and side-effect throughput, separate from request latency
+    @GetMapping("/health/outbox")
+    public ResponseEntity<Map<String, Object>> outboxMetrics() {
+        return ResponseEntity.ok(outboxDispatcher.getMetrics());
+    }
+
+    // Sessions closed and credited by the 5 PM auto time-out
+    @GetMapping("/health/auto-timeout")
+    public ResponseEntity<Map<String, Object>> autoTimeOutMetrics() {
+        return ResponseEntity.ok(autoTimeOutService.getMetrics());
+    }
 }
@@ -0,0 +1,37 @@
+package wildtrack.example.wildtrackbackend.controller;
+
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import wildtrack.example.wildtrackbackend.dto.KioskScanBatch;
+import wildtrack.example.wildtrackbackend.service.KioskScanService;
+
+@RestController
+@RequestMapping("/api/kiosk")
+public class KioskScanController {
+
+    @Autowired
+    private KioskScanService kioskScanService;
+
+    /**
+     * Record a batch of time-in and time-out scans from a kiosk.
+     * Each event needs an idempotencyKey; sending the same key again returns
+     * the original result instead of recording the scan twice.
+     */
+    @PostMapping("/scans")
+    public ResponseEntity<?> ingestScans(@RequestBody KioskScanBatch batch) {
+        try {
+            return ResponseEntity.ok(kioskScanService.ingest(batch));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "An unexpected error occurred."));
+        }
+    }
+}
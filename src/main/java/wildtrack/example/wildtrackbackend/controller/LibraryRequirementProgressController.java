@@ -9,9 +9,12 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import wildtrack.example.wildtrackbackend.dto.ActiveProgressDTO;
 import wildtrack.example.wildtrackbackend.entity.LibraryRequirementProgress;
 import wildtrack.example.wildtrackbackend.repository.LibraryRequirementProgressRepository;
+import wildtrack.example.wildtrackbackend.service.ContributingSessionMigration;
 import wildtrack.example.wildtrackbackend.service.LibraryRequirementProgressService;
+import wildtrack.example.wildtrackbackend.service.RequirementMaterializer;
 
 @RestController
 @RequestMapping("/api/library-progress")
@@ -23,6 +26,12 @@ public class LibraryRequirementProgressController {
     @Autowired
     private LibraryRequirementProgressRepository progressRepository;
 
+    @Autowired
+    private RequirementMaterializer requirementMaterializer;
+
+    @Autowired
+    private ContributingSessionMigration contributingSessionMigration;
+
     /**
      * Get all requirement progress for a student
      */
@@ -76,7 +85,7 @@ public class LibraryRequirementProgressController {
     @GetMapping("/active-progress/{studentId}")
     public ResponseEntity<?> getActiveProgressStatus(@PathVariable String studentId) {
         try {
-            List<Map<String, Object>> progress = progressService.getActiveProgressWithTimingStatus(studentId);
+            List<ActiveProgressDTO> progress = progressService.getActiveProgressWithTimingStatus(studentId);
             return ResponseEntity.ok(progress);
         } catch (Exception e) {
             e.printStackTrace();
@@ -100,6 +109,23 @@ public class LibraryRequirementProgressController {
         }
     }
 
+    /**
+     * Create any missing progress records for all requirements
+     */
+    @PostMapping("/materialize")
+    public ResponseEntity<?> materializeRequirements() {
+        try {
+            int created = requirementMaterializer.materializeAll();
+            return ResponseEntity.ok(Map.of(
+                    "message", "Requirement progress records created",
+                    "created", created));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Error creating progress records: " + e.getMessage()));
+        }
+    }
+
     /**
      * Force refresh requirements for a student to get any new requirements
      */
@@ -143,19 +169,25 @@ public class LibraryRequirementProgressController {
     }
 
     /**
-     * Run migration for existing library hours data
+     * Start (or resume) moving legacy contributing session lists onto library
+     * hours records. Runs in the background; poll the status endpoint for progress.
      */
     @PostMapping("/migrate-library-hours")
-    public ResponseEntity<?> migrateLibraryHours() {
+    public ResponseEntity<?> migrateLibraryHours(@RequestParam(defaultValue = "false") boolean restart) {
         try {
-            // Run migration
-            progressService.migrateExistingLibraryHoursToRequirements();
-
-            return ResponseEntity.ok(Map.of("message", "Migration completed successfully"));
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(contributingSessionMigration.start(restart));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error during migration: " + e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Progress of the current or last migration run
+     */
+    @GetMapping("/migrate-library-hours/status")
+    public ResponseEntity<?> migrateLibraryHoursStatus() {
+        return ResponseEntity.ok(contributingSessionMigration.getStatus());
+    }
+}
@@ -4,14 +4,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import wildtrack.example.wildtrackbackend.entity.Notification;
 import wildtrack.example.wildtrackbackend.entity.User;
 import wildtrack.example.wildtrackbackend.service.NotificationService;
 import wildtrack.example.wildtrackbackend.service.UserService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 @RestController
 @RequestMapping("/api/notifications")
@@ -34,7 +37,7 @@ public class NotificationController {
                         .body(Map.of("error", "User not found with ID number: " + idNumber));
             }
 
-            List<Notification> notifications = notificationService.getUserNotifications(user.getId());
+            List<Notification> notifications = notificationService.getUserNotifications(user);
             return ResponseEntity.ok(notifications);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -42,6 +45,42 @@ public class NotificationController {
         }
     }
 
+    // Get one page of a user's notification feed (previews, newest first).
+    // Pass the returned nextCursor to fetch the following page.
+    @GetMapping("/feed/{idNumber}")
+    public ResponseEntity<?> getNotificationFeed(@PathVariable String idNumber,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean unreadOnly) {
+        try {
+            User user = userService.getUserByIdNumber(idNumber);
+            if (user == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "User not found with ID number: " + idNumber));
+            }
+
+            return ResponseEntity.ok(notificationService.getNotificationFeed(user, cursor, limit, unreadOnly));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Error retrieving notifications: " + e.getMessage()));
+        }
+    }
+
+    // Get a single notification with its full message
+    @GetMapping("/{notificationId}")
+    public ResponseEntity<?> getNotification(@PathVariable Long notificationId,
+            @RequestParam(required = false) String idNumber) {
+        try {
+            User user = idNumber != null ? userService.getUserByIdNumber(idNumber) : null;
+            return ResponseEntity.ok(notificationService.getNotification(notificationId, user));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
     // Get unread notification count
     @GetMapping("/unread-count/{idNumber}")
     public ResponseEntity<?> getUnreadCount(@PathVariable String idNumber) {
@@ -52,7 +91,7 @@ public class NotificationController {
                         .body(Map.of("error", "User not found with ID number: " + idNumber));
             }
 
-            Long unreadCount = notificationService.getUnreadCount(user.getId()); // Remove the second parameter
+            Long unreadCount = notificationService.getUnreadCount(user);
             return ResponseEntity.ok(Map.of("unreadCount", unreadCount));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -60,12 +99,46 @@ public class NotificationController {
         }
     }
 
+    // Stream unread count changes as server-sent events ("unread-count").
+    // The current count is sent on connect; clients reconnect when the stream times out.
+    @GetMapping("/stream/{idNumber}")
+    public ResponseEntity<?> streamUnreadCount(@PathVariable String idNumber) {
+        try {
+            User user = userService.getUserByIdNumber(idNumber);
+            if (user == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "User not found with ID number: " + idNumber));
+            }
+
+            SseEmitter emitter = notificationService.streamUnreadCount(user);
+            return ResponseEntity.ok(emitter);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Error opening notification stream: " + e.getMessage()));
+        }
+    }
+
     // Mark notification as read
+    // PUT /api/notifications/{notificationId}/mark-read?idNumber={idNumber}
+    // idNumber is optional for personal notifications. Grade-level notifications are
+    // marked for that reader only, so they return 400 without it and 404 when it
+    // does not match a user.
     @PutMapping("/{notificationId}/mark-read")
-    public ResponseEntity<?> markAsRead(@PathVariable Long notificationId) {
+    public ResponseEntity<?> markAsRead(@PathVariable Long notificationId,
+            @RequestParam(required = false) String idNumber) {
         try {
-            Notification notification = notificationService.markAsRead(notificationId);
+            User user = null;
+            if (idNumber != null) {
+                user = userService.getUserByIdNumber(idNumber);
+                if (user == null) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(Map.of("error", "User not found with ID number: " + idNumber));
+                }
+            }
+            Notification notification = notificationService.markAsRead(notificationId, user);
             return ResponseEntity.ok(notification);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error marking notification as read: " + e.getMessage()));
@@ -83,20 +156,93 @@ public class NotificationController {
                         .body(Map.of("error", "User not found with ID number: " + idNumber));
             }
 
-            notificationService.markAllAsRead(user.getId()); // Remove the second parameter
-            return ResponseEntity.ok(Map.of("message", "All notifications marked as read"));
+            int updated = notificationService.markAllAsRead(user);
+            return ResponseEntity.ok(Map.of("message", "All notifications marked as read", "updated", updated));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error marking all notifications as read: " + e.getMessage()));
         }
     }
 
-    // Delete notification
+    // Mark all notifications of one type as read for a user
+    @PutMapping("/mark-read-by-type/{idNumber}")
+    public ResponseEntity<?> markAsReadByType(@PathVariable String idNumber, @RequestParam String type) {
+        try {
+            User user = userService.getUserByIdNumber(idNumber);
+            if (user == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "User not found with ID number: " + idNumber));
+            }
+
+            int updated = notificationService.markAsReadByType(user, type);
+            return ResponseEntity.ok(Map.of("message", "Notifications marked as read", "updated", updated));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Error marking notifications as read: " + e.getMessage()));
+        }
+    }
+
+    // Delete a user's read notifications older than the given number of days
+    @DeleteMapping("/purge/{idNumber}")
+    public ResponseEntity<?> purgeReadNotifications(@PathVariable String idNumber,
+            @RequestParam(defaultValue = "30") int olderThanDays) {
+        try {
+            User user = userService.getUserByIdNumber(idNumber);
+            if (user == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "User not found with ID number: " + idNumber));
+            }
+
+            int deleted = notificationService.purgeReadOlderThan(user,
+                    LocalDateTime.now().minusDays(olderThanDays));
+            return ResponseEntity.ok(Map.of("message", "Read notifications purged", "deleted", deleted));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Error purging notifications: " + e.getMessage()));
+        }
+    }
+
+    // Delete notification for one user
+    // DELETE /api/notifications/{notificationId}?idNumber={idNumber}
+    // idNumber is optional for personal notifications; when given, the notification
+    // must belong to that user. A grade-level notification is only dismissed for
+    // that user, so it needs idNumber (400 without it, 404 when not matching a user).
     @DeleteMapping("/{notificationId}")
-    public ResponseEntity<?> deleteNotification(@PathVariable Long notificationId) {
+    public ResponseEntity<?> deleteNotification(@PathVariable Long notificationId,
+            @RequestParam(required = false) String idNumber) {
         try {
-            notificationService.deleteNotification(notificationId);
+            User user = null;
+            if (idNumber != null) {
+                user = userService.getUserByIdNumber(idNumber);
+                if (user == null) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(Map.of("error", "User not found with ID number: " + idNumber));
+                }
+            }
+
+            notificationService.deleteNotification(notificationId, user);
             return ResponseEntity.ok(Map.of("message", "Notification deleted successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Error deleting notification: " + e.getMessage()));
+        }
+    }
+
+    // Delete a notification for everyone (admin use), including a grade-level
+    // notification and every user's read state for it
+    @DeleteMapping("/{notificationId}/permanent")
+    public ResponseEntity<?> deleteNotificationPermanently(@PathVariable Long notificationId) {
+        try {
+            notificationService.deleteNotificationPermanently(notificationId);
+            return ResponseEntity.ok(Map.of("message", "Notification deleted for all users"));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error deleting notification: " + e.getMessage()));
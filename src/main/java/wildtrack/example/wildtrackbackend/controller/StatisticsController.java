@@ -5,11 +5,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import wildtrack.example.wildtrackbackend.entity.LibraryHours;
-import wildtrack.example.wildtrackbackend.entity.LibraryRequirementProgress;
 import wildtrack.example.wildtrackbackend.entity.User;
 import wildtrack.example.wildtrackbackend.repository.LibraryHoursRepository;
-import wildtrack.example.wildtrackbackend.repository.LibraryRequirementProgressRepository;
 import wildtrack.example.wildtrackbackend.repository.UserRepository;
+import wildtrack.example.wildtrackbackend.service.DailyLibraryStatsService;
+import wildtrack.example.wildtrackbackend.service.OccupancyTracker;
+import wildtrack.example.wildtrackbackend.service.StatisticsService;
 import wildtrack.example.wildtrackbackend.service.TimeInService;
 import wildtrack.example.wildtrackbackend.service.UserService;
 
@@ -41,16 +42,21 @@ public class StatisticsController {
     private UserRepository userRepository;
 
     @Autowired
-    private LibraryRequirementProgressRepository progressRepository;
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private DailyLibraryStatsService dailyLibraryStatsService;
+
+    @Autowired
+    private OccupancyTracker occupancyTracker;
 
     @GetMapping("/dashboard")
     public ResponseEntity<?> getDashboardStatistics(
             @RequestParam(required = false) String gradeLevel,
             @RequestParam(required = false) String section) {
         try {
-            // Get students who are currently inside the library
-            // In a real implementation, this might also need filtering by grade/section
-            long studentsInsideLibrary = timeInService.getActiveStudentsCount();
+            // Get students who are currently inside the library, filtered by grade level and section
+            long studentsInsideLibrary = timeInService.getActiveStudentsCount(gradeLevel, section);
 
             // Get total registered students filtered by grade level and section
             long totalRegisteredStudents;
@@ -72,6 +78,20 @@ public class StatisticsController {
         }
     }
 
+    /**
+     * Students currently inside the library, in total and per grade and section
+     */
+    @GetMapping("/occupancy")
+    public ResponseEntity<?> getOccupancy() {
+        try {
+            return ResponseEntity.ok(occupancyTracker.getBreakdown());
+        } catch (Exception e) {
+            logger.severe("Error getting library occupancy: " + e.getMessage());
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Failed to fetch library occupancy"));
+        }
+    }
+
     @GetMapping("/active-participants")
     public ResponseEntity<?> getActiveParticipants(
             @RequestParam(required = false) String timeframe,
@@ -142,13 +162,9 @@ public class StatisticsController {
             // Create response data
             List<Map<String, Object>> resultData = new ArrayList<>();
 
-            // Apply grade level and section filters to get relevant users
-            // Important: We don't filter by academicYear property, only by grade and
-            // section
-            List<User> filteredUsers = filterUsers(gradeLevel, section);
-            List<String> userIds = filteredUsers.stream()
-                    .map(User::getIdNumber)
-                    .collect(Collectors.toList());
+            // Grade level and section filters are applied in SQL by the statistics
+            // service. Important: We don't filter by academicYear property, only by grade
+            // and section
 
             if ("weekly".equals(timeframe)) {
                 // For weekly data - show days of the week for the current week
@@ -163,18 +179,16 @@ public class StatisticsController {
                 LocalDate startDay = fromDate != null ? fromDate : monday;
                 LocalDate endDay = toDate != null ? toDate : monday.plusDays(6);
 
+                // Count unique participants for every day in the range with one query
+                Map<LocalDate, Long> participantsByDay = statisticsService.countParticipantsByDay(
+                        gradeLevel, section, quarter, subject, startDay, endDay);
+
                 // Create data for each day in the range
                 LocalDate currentDay = startDay;
                 while (!currentDay.isAfter(endDay)) {
                     String dayName = currentDay.getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH);
 
-                    // Define time boundaries for the day
-                    LocalDateTime startOfDay = currentDay.atStartOfDay();
-                    LocalDateTime endOfDay = currentDay.plusDays(1).atStartOfDay().minusNanos(1);
-
-                    // Count unique participants for this day with quarter and subject filtering
-                    long uniqueParticipants = countUniqueParticipants(
-                            userIds, startOfDay, endOfDay, quarter, subject);
+                    long uniqueParticipants = participantsByDay.getOrDefault(currentDay, 0L);
 
                     Map<String, Object> dayData = new LinkedHashMap<>();
                     dayData.put("day", dayName);
@@ -203,33 +217,17 @@ public class StatisticsController {
                 YearMonth start = YearMonth.from(startDate);
                 YearMonth end = YearMonth.from(endDate);
 
+                // Count unique participants for every month with one query. The first and
+                // last months are clipped to the requested date range by the query bounds
+                Map<YearMonth, Long> participantsByMonth = statisticsService.countParticipantsByMonth(
+                        gradeLevel, section, quarter, subject, startDate, endDate);
+
                 YearMonth current = start;
                 while (!current.isAfter(end)) {
                     int year = current.getYear();
                     int month = current.getMonthValue();
 
-                    // Get start and end of month
-                    LocalDateTime startOfMonth = LocalDateTime.of(year, month, 1, 0, 0);
-                    LocalDateTime endOfMonth = current.atEndOfMonth().atTime(23, 59, 59);
-
-                    // Create adjusted time bounds that respect the specific date range
-                    LocalDateTime adjustedStartTime = startOfMonth;
-                    LocalDateTime adjustedEndTime = endOfMonth;
-
-                    // If fromDate is provided and is in this month, use it as the start
-                    if (fromDate != null && fromDate.getYear() == year && fromDate.getMonthValue() == month) {
-                        adjustedStartTime = fromDate.atStartOfDay();
-                    }
-
-                    // If dateTo is provided and is in this month, use it as the end
-                    if (toDate != null && toDate.getYear() == year && toDate.getMonthValue() == month) {
-                        adjustedEndTime = toDate.atTime(23, 59, 59);
-                    }
-
-                    // Count unique participants for this month with quarter and subject filtering
-                    // using adjusted time bounds to respect the specific date range
-                    long uniqueParticipants = countUniqueParticipants(
-                            userIds, adjustedStartTime, adjustedEndTime, quarter, subject);
+                    long uniqueParticipants = participantsByMonth.getOrDefault(current, 0L);
 
                     Map<String, Object> monthData = new LinkedHashMap<>();
 
@@ -257,73 +255,6 @@ public class StatisticsController {
         }
     }
 
-    /**
-     * Count unique participants with proper combination of all filters
-     */
-    private long countUniqueParticipants(
-            List<String> userIds,
-            LocalDateTime startTime,
-            LocalDateTime endTime,
-            String quarter,
-            String subject) {
-
-        // Convert to LocalDate for progress repository methods
-        final LocalDate startDate = startTime.toLocalDate();
-        final LocalDate endDate = endTime.toLocalDate();
-        final String finalQuarter = quarter;
-        final String finalSubject = subject;
-
-        // For filtering, we need to use progress repository
-        Set<String> uniqueParticipants = new HashSet<>();
-
-        // Base list of users to check (already filtered by grade and section only)
-        List<String> idsToCheck = userIds.isEmpty() ? userRepository.findByRole("Student").stream()
-                .map(User::getIdNumber)
-                .collect(Collectors.toList())
-                : userIds;
-
-        // For each user, check if they have progress matching ALL filtering criteria
-        for (String userId : idsToCheck) {
-            List<LibraryRequirementProgress> progressList = progressRepository.findByStudentId(userId);
-
-            // Create a combined filter that applies ALL conditions
-            boolean hasMatchingProgress = progressList.stream()
-                    .anyMatch(progress -> {
-                        // Date range condition - this already incorporates academic year if set
-                        boolean dateRangeMatches = progress.getLastUpdated() != null &&
-                                !progress.getLastUpdated().isBefore(startDate) &&
-                                !progress.getLastUpdated().isAfter(endDate);
-
-                        // Minutes condition
-                        boolean minutesMatch = progress.getMinutesRendered() > 0;
-
-                        // Quarter condition (if specified)
-                        boolean quarterMatches = finalQuarter == null ||
-                                finalQuarter.isEmpty() ||
-                                finalQuarter.equals(progress.getQuarter());
-
-                        // Subject condition (if specified)
-                        boolean subjectMatches = finalSubject == null ||
-                                finalSubject.isEmpty() ||
-                                finalSubject.equals(progress.getSubject());
-
-                        // ALL conditions must be true
-                        return dateRangeMatches && minutesMatch && quarterMatches && subjectMatches;
-                    });
-
-            if (hasMatchingProgress) {
-                uniqueParticipants.add(userId);
-            }
-        }
-
-        logger.info("Counted " + uniqueParticipants.size() + " participants for filters - " +
-                "quarter: " + quarter + ", subject: " + subject +
-                ", dateRange: " + startDate + " to " + endDate +
-                ", from " + userIds.size() + " filtered users");
-
-        return uniqueParticipants.size();
-    }
-
     @GetMapping("/completion-rate")
     public ResponseEntity<?> getCompletionRate(
             @RequestParam(required = false) String timeframe,
@@ -391,15 +322,6 @@ public class StatisticsController {
                 toDate = LocalDate.parse(dateTo, DATE_FORMATTER);
             }
 
-            // Apply grade level and section filters to get relevant users
-            List<User> filteredUsers = filterUsers(gradeLevel, section);
-            // Get student IDs for filtering
-            List<String> studentIds = filteredUsers.stream()
-                    .map(User::getIdNumber)
-                    .collect(Collectors.toList());
-
-            logger.info("Filtered to " + studentIds.size() + " students for completion rate");
-
             List<Map<String, Object>> resultData = new ArrayList<>();
 
             if ("weekly".equals(timeframe)) {
@@ -426,18 +348,15 @@ public class StatisticsController {
                     weekDataMap.put(dow, dayData);
                 }
 
+                // Calculate completion rates for every day in the range with one query
+                double[] dailyRates = statisticsService.getCompletionRatesByDay(
+                        gradeLevel, section, quarter, subject, startDay, endDay);
+
                 // Process each day in the date range
                 LocalDate currentDate = startDay;
-                while (!currentDate.isAfter(endDay)) {
-                    DayOfWeek dayOfWeek = currentDate.getDayOfWeek();
-                    final LocalDate finalCurrentDate = currentDate;
-
-                    // Calculate completion rate for this day using the filtered student IDs
-                    double rate = calculateCompletionRate(finalCurrentDate, finalCurrentDate, studentIds, subject,
-                            quarter);
-
+                for (double rate : dailyRates) {
                     // Update the map with actual data
-                    weekDataMap.get(dayOfWeek).put("rate", Math.round(rate));
+                    weekDataMap.get(currentDate.getDayOfWeek()).put("rate", Math.round(rate));
 
                     currentDate = currentDate.plusDays(1);
                 }
@@ -467,36 +386,16 @@ public class StatisticsController {
                 YearMonth start = YearMonth.from(startDate);
                 YearMonth end = YearMonth.from(endDate);
 
+                // Calculate completion rates for every month with one query. The first and
+                // last months are clipped to the requested date range by the query bounds
+                double[] monthlyRates = statisticsService.getCompletionRatesByMonth(
+                        gradeLevel, section, quarter, subject, startDate, endDate);
+
                 YearMonth current = start;
-                while (!current.isAfter(end)) {
+                for (double rate : monthlyRates) {
                     int year = current.getYear();
                     int month = current.getMonthValue();
 
-                    // Get start and end of month
-                    LocalDate startOfMonth = LocalDate.of(year, month, 1);
-                    LocalDate endOfMonth = current.atEndOfMonth();
-
-                    // Create adjusted time bounds that respect the specific date range
-                    LocalDate adjustedStartDate = startOfMonth;
-                    LocalDate adjustedEndDate = endOfMonth;
-
-                    // If fromDate is provided and is in this month, use it as the start
-                    if (fromDate != null && fromDate.getYear() == year && fromDate.getMonthValue() == month) {
-                        adjustedStartDate = fromDate;
-                    }
-
-                    // If dateTo is provided and is in this month, use it as the end
-                    if (toDate != null && toDate.getYear() == year && toDate.getMonthValue() == month) {
-                        adjustedEndDate = toDate;
-                    }
-
-                    // Create final copies for lambda expressions
-                    final LocalDate finalStartDate = adjustedStartDate;
-                    final LocalDate finalEndDate = adjustedEndDate;
-
-                    // Calculate completion rate for this month with all filters applied
-                    double rate = calculateCompletionRate(finalStartDate, finalEndDate, studentIds, subject, quarter);
-
                     Map<String, Object> monthData = new LinkedHashMap<>();
 
                     // Include year in label if spanning multiple years
@@ -523,76 +422,6 @@ public class StatisticsController {
         }
     }
 
-    /**
-     * Calculate the completion rate for a specific date range, filtered by student
-     * IDs and subject
-     */
-    private double calculateCompletionRate(
-            LocalDate startDate,
-            LocalDate endDate,
-            List<String> studentIds,
-            String subject,
-            String quarter) {
-
-        long totalRequirements = 0;
-        long completedRequirements = 0;
-
-        // If no students to filter by, return 0
-        if (studentIds.isEmpty()) {
-            return 0;
-        }
-
-        // Get all progress records for the filtered students within the date range
-        List<LibraryRequirementProgress> progressList = new ArrayList<>();
-
-        for (String studentId : studentIds) {
-            List<LibraryRequirementProgress> studentProgress = progressRepository.findByStudentId(studentId);
-
-            // Filter with all conditions
-            final LocalDate finalStartDate = startDate;
-            final LocalDate finalEndDate = endDate;
-            final String finalSubject = subject;
-            final String finalQuarter = quarter;
-
-            List<LibraryRequirementProgress> filteredProgress = studentProgress.stream()
-                    .filter(p -> {
-                        // Date range condition
-                        boolean dateRangeMatches = p.getLastUpdated() != null &&
-                                !p.getLastUpdated().isBefore(finalStartDate) &&
-                                !p.getLastUpdated().isAfter(finalEndDate);
-
-                        // Subject condition (if specified)
-                        boolean subjectMatches = finalSubject == null ||
-                                finalSubject.isEmpty() ||
-                                finalSubject.equals(p.getSubject());
-
-                        // Quarter condition (if specified)
-                        boolean quarterMatches = finalQuarter == null ||
-                                finalQuarter.isEmpty() ||
-                                finalQuarter.equals(p.getQuarter());
-
-                        // All conditions must be true
-                        return dateRangeMatches && subjectMatches && quarterMatches;
-                    })
-                    .collect(Collectors.toList());
-
-            progressList.addAll(filteredProgress);
-        }
-
-        // Count total and completed requirements
-        totalRequirements = progressList.size();
-        completedRequirements = progressList.stream()
-                .filter(LibraryRequirementProgress::getIsCompleted)
-                .count();
-
-        // Calculate completion rate
-        double rate = totalRequirements > 0
-                ? (completedRequirements * 100.0 / totalRequirements)
-                : 0;
-
-        return rate;
-    }
-
     @GetMapping("/completed-requirements")
     public ResponseEntity<?> getCompletedRequirements(
             @RequestParam(required = false) String academicYear,
@@ -667,74 +496,18 @@ public class StatisticsController {
             YearMonth start = YearMonth.from(fromDate);
             YearMonth end = YearMonth.from(toDate);
 
+            // Count completed requirements for every month with one grouped query. The
+            // first and last months are clipped to the requested date range by the query
+            // bounds
+            Map<YearMonth, Long> completedByMonth = statisticsService.countCompletedRequirementsByMonth(
+                    gradeLevel, section, quarter, subject, fromDate, toDate);
+
             YearMonth current = start;
             while (!current.isAfter(end)) {
                 int year = current.getYear();
                 int month = current.getMonthValue();
 
-                // Get start and end of month
-                LocalDate startOfMonth = LocalDate.of(year, month, 1);
-                LocalDate endOfMonth = current.atEndOfMonth();
-
-                // Create adjusted time bounds that respect the specific date range
-                LocalDate adjustedStartDate = startOfMonth;
-                LocalDate adjustedEndDate = endOfMonth;
-
-                // If fromDate is provided and is in this month, use it as the start
-                if (fromDate != null && fromDate.getYear() == year && fromDate.getMonthValue() == month) {
-                    adjustedStartDate = fromDate;
-                }
-
-                // If dateTo is provided and is in this month, use it as the end
-                if (toDate != null && toDate.getYear() == year && toDate.getMonthValue() == month) {
-                    adjustedEndDate = toDate;
-                }
-
-                // Create final copies for lambda expressions
-                final LocalDate finalStartDate = adjustedStartDate;
-                final LocalDate finalEndDate = adjustedEndDate;
-                final String finalSubject = (subject != null && !subject.isEmpty()) ? subject : null;
-                final String finalQuarter = (quarter != null && !quarter.isEmpty()) ? quarter : null;
-
-                // Apply grade and section filters to get relevant users
-                List<User> filteredUsers = filterUsers(gradeLevel, section);
-                List<String> studentIds = filteredUsers.stream()
-                        .map(User::getIdNumber)
-                        .collect(Collectors.toList());
-
-                // Manual filtering approach
-                List<LibraryRequirementProgress> allProgress = new ArrayList<>();
-
-                // Get progress for each filtered student
-                for (String studentId : studentIds) {
-                    List<LibraryRequirementProgress> studentProgress = progressRepository
-                            .findByStudentId(studentId);
-                    allProgress.addAll(studentProgress);
-                }
-
-                // Filter by all criteria together with proper AND logic
-                long completedRequirements = allProgress.stream()
-                        .filter(p -> {
-                            // Completion status
-                            boolean isCompleted = p.getIsCompleted();
-
-                            // Date range condition
-                            boolean dateRangeMatches = p.getLastUpdated() != null &&
-                                    !p.getLastUpdated().isBefore(finalStartDate) &&
-                                    !p.getLastUpdated().isAfter(finalEndDate);
-
-                            // Subject condition (if specified)
-                            boolean subjectMatches = finalSubject == null ||
-                                    finalSubject.equals(p.getSubject());
-
-                            // Quarter condition (if specified)
-                            boolean quarterMatches = finalQuarter == null ||
-                                    finalQuarter.equals(p.getQuarter());
-
-                            // All conditions must be true
-                            return isCompleted && dateRangeMatches && subjectMatches && quarterMatches;
-                        })
-                        .count();
+                long completedRequirements = completedByMonth.getOrDefault(current, 0L);
 
                 Map<String, Object> monthData = new LinkedHashMap<>();
 
@@ -762,39 +535,54 @@ public class StatisticsController {
     }
 
     /**
-     * Enhanced filterUsers method that properly handles filters
-     * Updated to NOT use academicYear filter for students
+     * Daily totals read from the daily_library_stats rollup.
+     * Defaults to the last 30 days when no date range is given.
      */
-    public List<User> filterUsers(String gradeLevel, String section) {
-        List<User> allUsers = userRepository.findByRole("Student");
-
-        // Log the filter parameters for debugging
-        logger.info("Filtering users with criteria: gradeLevel=" + gradeLevel +
-                ", section=" + section);
-
-        // Create a filtered list with grade and section filters applied
-        List<User> filteredUsers = allUsers.stream()
-                .filter(user -> {
-                    // Grade level filter (handle different formats)
-                    boolean gradeMatches = gradeLevel == null || gradeLevel.isEmpty() ||
-                            "All Grades".equals(gradeLevel) ||
-                            gradeLevel.equals(user.getGrade()) ||
-                            gradeLevel.equals("Grade " + user.getGrade());
-
-                    // Section filter
-                    boolean sectionMatches = section == null || section.isEmpty() ||
-                            section.equals(user.getSection());
-
-                    // Only apply grade and section filters - academicYear is used only for date
-                    // ranges
-                    return gradeMatches && sectionMatches;
-                })
-                .collect(Collectors.toList());
-
-        logger.info("Filtered " + allUsers.size() + " users down to " + filteredUsers.size() +
-                " based on gradeLevel and section");
-
-        return filteredUsers;
+    @GetMapping("/daily-summary")
+    public ResponseEntity<?> getDailySummary(
+            @RequestParam(required = false) String gradeLevel,
+            @RequestParam(required = false) String section,
+            @RequestParam(required = false) String subject,
+            @RequestParam(required = false) String quarter,
+            @RequestParam(required = false) String dateFrom,
+            @RequestParam(required = false) String dateTo) {
+        try {
+            LocalDate toDate = (dateTo != null && !dateTo.isEmpty())
+                    ? LocalDate.parse(dateTo, DATE_FORMATTER)
+                    : LocalDate.now();
+            LocalDate fromDate = (dateFrom != null && !dateFrom.isEmpty())
+                    ? LocalDate.parse(dateFrom, DATE_FORMATTER)
+                    : toDate.minusDays(29);
+
+            return ResponseEntity.ok(dailyLibraryStatsService.getDailySummary(
+                    fromDate, toDate, gradeLevel, section, subject, quarter));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Failed to fetch daily summary: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Rebuild the daily_library_stats rollup for a date range from library hours
+     */
+    @PostMapping("/daily-summary/rebuild")
+    public ResponseEntity<?> rebuildDailySummary(
+            @RequestParam String dateFrom,
+            @RequestParam String dateTo) {
+        try {
+            LocalDate fromDate = LocalDate.parse(dateFrom, DATE_FORMATTER);
+            LocalDate toDate = LocalDate.parse(dateTo, DATE_FORMATTER);
+
+            int rowsWritten = dailyLibraryStatsService.rebuild(fromDate, toDate);
+            return ResponseEntity.ok(Map.of(
+                    "message", "Daily summary rebuilt successfully",
+                    "rowsWritten", rowsWritten));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Failed to rebuild daily summary: " + e.getMessage()));
+        }
     }
 
     @GetMapping("/active-students")
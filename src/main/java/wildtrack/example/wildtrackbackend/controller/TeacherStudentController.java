@@ -1,6 +1,9 @@
 package wildtrack.example.wildtrackbackend.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import wildtrack.example.wildtrackbackend.entity.LibraryRequirementProgress;
@@ -8,12 +11,16 @@ import wildtrack.example.wildtrackbackend.entity.User;
 import wildtrack.example.wildtrackbackend.repository.LibraryRequirementProgressRepository;
 import wildtrack.example.wildtrackbackend.repository.TimeInRepository;
 import wildtrack.example.wildtrackbackend.repository.UserRepository;
-import wildtrack.example.wildtrackbackend.service.LibraryRequirementProgressService;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.logging.Logger;
 
 @RestController
@@ -29,58 +36,85 @@ public class TeacherStudentController {
 
     @Autowired
     private TimeInRepository timeInRepository; // Add TimeInRepository to check active sessions
-    @Autowired
-    private LibraryRequirementProgressService libraryRequirementProgressService; // Add this
+
+    // Students per IN (...) list when loading progress and sessions
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    // Columns the student list may be sorted by
+    private static final Set<String> SORT_FIELDS = Set.of("lastName", "firstName", "idNumber", "grade", "section");
 
     /**
-     * Get students filtered by role, grade level, and subject
+     * Get students filtered by role, grade level, and subject.
+     * Progress rows and active sessions are loaded for all listed students in
+     * batched queries. With a page parameter, students are paged and sorted in
+     * the database and the rows come back with paging details.
      */
     @GetMapping
     public ResponseEntity<?> getStudents(
             @RequestParam(defaultValue = "Student") String role,
             @RequestParam(required = false) String gradeLevel,
             @RequestParam(required = false) String subject,
-            @RequestParam(required = false) String quarter) {
+            @RequestParam(required = false) String quarter,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "lastName") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction) {
         try {
             logger.info("Getting students with role=" + role +
                     ", gradeLevel=" + gradeLevel +
                     ", subject=" + subject +
-                    ", quarter=" + quarter);
+                    ", quarter=" + quarter +
+                    ", page=" + page);
+
+            if (!SORT_FIELDS.contains(sortBy)) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("error", "Cannot sort by " + sortBy + "; use one of " + SORT_FIELDS));
+            }
+            Sort.Direction sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+            Sort sort = Sort.by(sortDirection, sortBy).and(Sort.by("lastName", "firstName", "idNumber"));
+            boolean hasGrade = gradeLevel != null && !gradeLevel.isEmpty();
 
             // First, get students by role and grade level
             List<User> students;
-            if (gradeLevel != null && !gradeLevel.isEmpty()) {
-                students = userRepository.findByRoleAndGrade(role, gradeLevel);
+            Page<User> studentPage = null;
+            if (page != null) {
+                PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), 500), sort);
+                studentPage = hasGrade
+                        ? userRepository.findByRoleAndGrade(role, gradeLevel, pageRequest)
+                        : userRepository.findByRole(role, pageRequest);
+                students = studentPage.getContent();
             } else {
-                students = userRepository.findByRole(role);
+                students = hasGrade
+                        ? userRepository.findByRoleAndGrade(role, gradeLevel)
+                        : userRepository.findByRole(role);
+                students = new ArrayList<>(students);
+                students.sort(comparator(sortBy, sortDirection));
+            }
+
+            String subjectFilter = (subject != null && !subject.isEmpty()) ? subject : null;
+            String quarterFilter = (quarter != null && !quarter.isEmpty()) ? quarter : null;
+
+            // Progress rows and active sessions for every listed student, loaded in bulk
+            Map<String, List<LibraryRequirementProgress>> progressByStudent = new HashMap<>();
+            Set<String> activeStudents = new HashSet<>();
+            List<String> idNumbers = students.stream().map(User::getIdNumber).toList();
+            for (int from = 0; from < idNumbers.size(); from += LOOKUP_CHUNK_SIZE) {
+                List<String> chunk = idNumbers.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, idNumbers.size()));
+                for (LibraryRequirementProgress progress : progressRepository.findForStudents(chunk, subjectFilter,
+                        quarterFilter)) {
+                    progressByStudent.computeIfAbsent(progress.getStudentId(), id -> new ArrayList<>()).add(progress);
+                }
+                activeStudents.addAll(timeInRepository.findActiveIdNumbers(chunk));
             }
 
             List<Map<String, Object>> result = new ArrayList<>();
 
-            // For each student, check if they have progress for the specified subject and
-            // quarter
             for (User student : students) {
-                // Initialize requirements for this student
-                libraryRequirementProgressService.initializeRequirements(student.getIdNumber());
-                List<LibraryRequirementProgress> progressRecords;
-
-                // Filter progress records based on subject and quarter
-                if (subject != null && !subject.isEmpty() && quarter != null && !quarter.isEmpty()) {
-                    progressRecords = progressRepository.findByStudentIdAndSubjectAndQuarter(
-                            student.getIdNumber(), subject, quarter);
-                } else if (subject != null && !subject.isEmpty()) {
-                    progressRecords = progressRepository.findByStudentIdAndSubject(
-                            student.getIdNumber(), subject);
-                } else if (quarter != null && !quarter.isEmpty()) {
-                    progressRecords = progressRepository.findByStudentIdAndQuarter(
-                            student.getIdNumber(), quarter);
-                } else {
-                    // If no subject or quarter specified, get all progress records
-                    progressRecords = progressRepository.findByStudentId(student.getIdNumber());
-                }
+                List<LibraryRequirementProgress> progressRecords = progressByStudent.getOrDefault(
+                        student.getIdNumber(), List.of());
 
                 // Check if student has an active time-in session
-                boolean hasActiveSession = timeInRepository.existsByIdNumberAndTimeOutIsNull(student.getIdNumber());
+                boolean hasActiveSession = activeStudents.contains(student.getIdNumber());
 
                 // Always include students matching the basic filters, even if they have no
                 // progress records
@@ -141,7 +175,17 @@ public class TeacherStudentController {
                 }
             }
 
-            return ResponseEntity.ok(result);
+            if (studentPage == null) {
+                return ResponseEntity.ok(result);
+            }
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("content", result);
+            response.put("page", studentPage.getNumber());
+            response.put("size", studentPage.getSize());
+            response.put("totalStudents", studentPage.getTotalElements());
+            response.put("totalPages", studentPage.getTotalPages());
+            return ResponseEntity.ok(response);
         } catch (Exception e) {
             logger.severe("Error getting students: " + e.getMessage());
             e.printStackTrace();
@@ -149,4 +193,23 @@ public class TeacherStudentController {
                     .body(Map.of("error", "Failed to fetch students: " + e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    // In-memory equivalent of the database sort for the unpaged list
+    private Comparator<User> comparator(String sortBy, Sort.Direction direction) {
+        Function<User, String> key = switch (sortBy) {
+            case "firstName" -> User::getFirstName;
+            case "idNumber" -> User::getIdNumber;
+            case "grade" -> User::getGrade;
+            case "section" -> User::getSection;
+            default -> User::getLastName;
+        };
+        Comparator<User> comparator = Comparator.comparing(key, Comparator.nullsLast(Comparator.naturalOrder()));
+        if (direction == Sort.Direction.DESC) {
+            comparator = comparator.reversed();
+        }
+        return comparator
+                .thenComparing(User::getLastName, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(User::getFirstName, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(User::getIdNumber, Comparator.nullsLast(Comparator.naturalOrder()));
+    }
+}
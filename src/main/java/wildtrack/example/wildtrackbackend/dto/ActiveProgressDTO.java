@@ -0,0 +1,184 @@
+package wildtrack.example.wildtrackbackend.dto;
+
+import java.time.LocalDate;
+
+/**
+ * One row of a student's active-progress view: the progress record joined
+ * with its requirement's task and creator, plus the computed status
+ */
+public class ActiveProgressDTO {
+    private Long id;
+    private Long requirementId;
+    private String studentId;
+    private String subject;
+    private String quarter;
+    private String gradeLevel;
+    private Integer requiredMinutes;
+    private Integer minutesRendered;
+    private Integer remainingMinutes;
+    private LocalDate deadline;
+    private Boolean isCompleted;
+    private Double progressPercentage;
+    private String task;
+    private String creatorName;
+    private String status;
+    private Integer contributingSessionsCount;
+
+    // Default constructor
+    public ActiveProgressDTO() {
+    }
+
+    // Constructor with a projected row:
+    // id, requirementId, studentId, subject, quarter, gradeLevel, requiredMinutes,
+    // minutesRendered, deadline, isCompleted, task, creator first name, creator last
+    // name, contributing session count
+    public ActiveProgressDTO(Object[] row) {
+        this.id = (Long) row[0];
+        this.requirementId = (Long) row[1];
+        this.studentId = (String) row[2];
+        this.subject = (String) row[3];
+        this.quarter = (String) row[4];
+        this.gradeLevel = (String) row[5];
+        this.requiredMinutes = (Integer) row[6];
+        this.minutesRendered = (Integer) row[7];
+        this.deadline = (LocalDate) row[8];
+        this.isCompleted = (Boolean) row[9];
+        this.task = (String) row[10];
+        this.creatorName = row[11] != null ? row[11] + " " + row[12] : "Unknown Teacher";
+        this.contributingSessionsCount = row[13] != null ? ((Number) row[13]).intValue() : 0;
+
+        // Same figures as LibraryRequirementProgress.getRemainingMinutes/getProgressPercentage
+        this.remainingMinutes = Math.max(0, requiredMinutes - minutesRendered);
+        this.progressPercentage = requiredMinutes == 0 ? 0
+                : Math.min(100.0, ((double) minutesRendered / requiredMinutes) * 100);
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getRequirementId() {
+        return requirementId;
+    }
+
+    public void setRequirementId(Long requirementId) {
+        this.requirementId = requirementId;
+    }
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(String studentId) {
+        this.studentId = studentId;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getQuarter() {
+        return quarter;
+    }
+
+    public void setQuarter(String quarter) {
+        this.quarter = quarter;
+    }
+
+    public String getGradeLevel() {
+        return gradeLevel;
+    }
+
+    public void setGradeLevel(String gradeLevel) {
+        this.gradeLevel = gradeLevel;
+    }
+
+    public Integer getRequiredMinutes() {
+        return requiredMinutes;
+    }
+
+    public void setRequiredMinutes(Integer requiredMinutes) {
+        this.requiredMinutes = requiredMinutes;
+    }
+
+    public Integer getMinutesRendered() {
+        return minutesRendered;
+    }
+
+    public void setMinutesRendered(Integer minutesRendered) {
+        this.minutesRendered = minutesRendered;
+    }
+
+    public Integer getRemainingMinutes() {
+        return remainingMinutes;
+    }
+
+    public void setRemainingMinutes(Integer remainingMinutes) {
+        this.remainingMinutes = remainingMinutes;
+    }
+
+    public LocalDate getDeadline() {
+        return deadline;
+    }
+
+    public void setDeadline(LocalDate deadline) {
+        this.deadline = deadline;
+    }
+
+    public Boolean getIsCompleted() {
+        return isCompleted;
+    }
+
+    public void setIsCompleted(Boolean isCompleted) {
+        this.isCompleted = isCompleted;
+    }
+
+    public Double getProgressPercentage() {
+        return progressPercentage;
+    }
+
+    public void setProgressPercentage(Double progressPercentage) {
+        this.progressPercentage = progressPercentage;
+    }
+
+    public String getTask() {
+        return task;
+    }
+
+    public void setTask(String task) {
+        this.task = task;
+    }
+
+    public String getCreatorName() {
+        return creatorName;
+    }
+
+    public void setCreatorName(String creatorName) {
+        this.creatorName = creatorName;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Integer getContributingSessionsCount() {
+        return contributingSessionsCount;
+    }
+
+    public void setContributingSessionsCount(Integer contributingSessionsCount) {
+        this.contributingSessionsCount = contributingSessionsCount;
+    }
+}
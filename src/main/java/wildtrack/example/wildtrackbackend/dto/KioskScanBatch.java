@@ -0,0 +1,29 @@
+package wildtrack.example.wildtrackbackend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scans buffered by one kiosk, in the order they were taken
+ */
+public class KioskScanBatch {
+    private String kioskId;
+    private List<KioskScanEvent> events = new ArrayList<>();
+
+    // Getters and setters
+    public String getKioskId() {
+        return kioskId;
+    }
+
+    public void setKioskId(String kioskId) {
+        this.kioskId = kioskId;
+    }
+
+    public List<KioskScanEvent> getEvents() {
+        return events;
+    }
+
+    public void setEvents(List<KioskScanEvent> events) {
+        this.events = events;
+    }
+}
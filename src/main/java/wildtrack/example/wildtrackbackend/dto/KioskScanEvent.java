@@ -0,0 +1,56 @@
+package wildtrack.example.wildtrackbackend.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One scan in a kiosk batch. type is TIME_IN or TIME_OUT; scannedAt is the
+ * Manila time of the scan and defaults to the time the batch is received.
+ */
+public class KioskScanEvent {
+    private String idempotencyKey;
+    private String idNumber;
+    private String type;
+    private String subject;
+    private LocalDateTime scannedAt;
+
+    // Getters and setters
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getIdNumber() {
+        return idNumber;
+    }
+
+    public void setIdNumber(String idNumber) {
+        this.idNumber = idNumber;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public LocalDateTime getScannedAt() {
+        return scannedAt;
+    }
+
+    public void setScannedAt(LocalDateTime scannedAt) {
+        this.scannedAt = scannedAt;
+    }
+}
@@ -0,0 +1,110 @@
+package wildtrack.example.wildtrackbackend.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notification as shown in the bell feed: the message is cut to a short preview
+ */
+public class NotificationPreviewDTO {
+    private Long id;
+    private String title;
+    private String preview;
+    private boolean truncated;
+    private LocalDateTime createdAt;
+    private boolean read;
+    private String notificationType;
+    private Long referenceId;
+    private String gradeLevel;
+
+    // Default constructor
+    public NotificationPreviewDTO() {
+    }
+
+    // Constructor with a projected feed row:
+    // id, title, preview, message length, createdAt, read, type, referenceId, gradeLevel
+    public NotificationPreviewDTO(Object[] row) {
+        this.id = ((Number) row[0]).longValue();
+        this.title = (String) row[1];
+        this.preview = (String) row[2];
+        this.truncated = row[3] != null && this.preview != null
+                && ((Number) row[3]).intValue() > this.preview.length();
+        this.createdAt = (LocalDateTime) row[4];
+        this.read = Boolean.TRUE.equals(row[5]);
+        this.notificationType = (String) row[6];
+        this.referenceId = row[7] != null ? ((Number) row[7]).longValue() : null;
+        this.gradeLevel = (String) row[8];
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getPreview() {
+        return preview;
+    }
+
+    public void setPreview(String preview) {
+        this.preview = preview;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public boolean isRead() {
+        return read;
+    }
+
+    public void setRead(boolean read) {
+        this.read = read;
+    }
+
+    public String getNotificationType() {
+        return notificationType;
+    }
+
+    public void setNotificationType(String notificationType) {
+        this.notificationType = notificationType;
+    }
+
+    public Long getReferenceId() {
+        return referenceId;
+    }
+
+    public void setReferenceId(Long referenceId) {
+        this.referenceId = referenceId;
+    }
+
+    public String getGradeLevel() {
+        return gradeLevel;
+    }
+
+    public void setGradeLevel(String gradeLevel) {
+        this.gradeLevel = gradeLevel;
+    }
+}
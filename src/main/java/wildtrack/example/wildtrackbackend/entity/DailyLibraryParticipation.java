@@ -0,0 +1,84 @@
+package wildtrack.example.wildtrackbackend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Per-day count of distinct students credited in a grade and section, across
+ * every subject and quarter. daily_library_stats only knows distinct students
+ * per subject and quarter, so summing it would count a student credited to
+ * several requirements on the same day more than once.
+ */
+@Entity
+@Table(name = "daily_library_participation", uniqueConstraints = @UniqueConstraint(name = "uk_daily_library_participation_key", columnNames = {
+        "stat_date", "grade_level", "section" }))
+public class DailyLibraryParticipation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    // Key columns use "" instead of NULL, as in daily_library_stats
+    @Column(name = "grade_level", nullable = false)
+    private String gradeLevel = "";
+
+    @Column(name = "section", nullable = false)
+    private String section = "";
+
+    @Column(name = "participants", nullable = false)
+    private Integer participants = 0;
+
+    // Default constructor
+    public DailyLibraryParticipation() {
+    }
+
+    public DailyLibraryParticipation(LocalDate statDate, String gradeLevel, String section) {
+        this.statDate = statDate;
+        this.gradeLevel = gradeLevel;
+        this.section = section;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getStatDate() {
+        return statDate;
+    }
+
+    public void setStatDate(LocalDate statDate) {
+        this.statDate = statDate;
+    }
+
+    public String getGradeLevel() {
+        return gradeLevel;
+    }
+
+    public void setGradeLevel(String gradeLevel) {
+        this.gradeLevel = gradeLevel;
+    }
+
+    public String getSection() {
+        return section;
+    }
+
+    public void setSection(String section) {
+        this.section = section;
+    }
+
+    public Integer getParticipants() {
+        return participants;
+    }
+
+    public void setParticipants(Integer participants) {
+        this.participants = participants;
+    }
+}
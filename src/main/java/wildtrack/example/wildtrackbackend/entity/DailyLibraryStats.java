@@ -0,0 +1,143 @@
+package wildtrack.example.wildtrackbackend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Per-day rollup of credited library time, keyed by grade, section, subject and
+ * quarter. Rows are incremented when a session is credited to a requirement and
+ * can be rebuilt from library_hours for any date range.
+ */
+@Entity
+@Table(name = "daily_library_stats", uniqueConstraints = @UniqueConstraint(name = "uk_daily_library_stats_key", columnNames = {
+        "stat_date", "grade_level", "section", "subject", "quarter" }))
+public class DailyLibraryStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    // Key columns use "" instead of NULL so the unique key always applies
+    @Column(name = "grade_level", nullable = false)
+    private String gradeLevel = "";
+
+    @Column(name = "section", nullable = false)
+    private String section = "";
+
+    @Column(name = "subject", nullable = false)
+    private String subject = "";
+
+    @Column(name = "quarter", nullable = false)
+    private String quarter = "";
+
+    // Distinct students credited for this key on this day
+    @Column(name = "participants", nullable = false)
+    private Integer participants = 0;
+
+    @Column(name = "minutes_rendered", nullable = false)
+    private Long minutesRendered = 0L;
+
+    // Distinct requirement progress records that received time on this day
+    @Column(name = "requirements_touched", nullable = false)
+    private Integer requirementsTouched = 0;
+
+    @Column(name = "requirements_completed", nullable = false)
+    private Integer requirementsCompleted = 0;
+
+    // Default constructor
+    public DailyLibraryStats() {
+    }
+
+    public DailyLibraryStats(LocalDate statDate, String gradeLevel, String section, String subject,
+            String quarter) {
+        this.statDate = statDate;
+        this.gradeLevel = gradeLevel;
+        this.section = section;
+        this.subject = subject;
+        this.quarter = quarter;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getStatDate() {
+        return statDate;
+    }
+
+    public void setStatDate(LocalDate statDate) {
+        this.statDate = statDate;
+    }
+
+    public String getGradeLevel() {
+        return gradeLevel;
+    }
+
+    public void setGradeLevel(String gradeLevel) {
+        this.gradeLevel = gradeLevel;
+    }
+
+    public String getSection() {
+        return section;
+    }
+
+    public void setSection(String section) {
+        this.section = section;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getQuarter() {
+        return quarter;
+    }
+
+    public void setQuarter(String quarter) {
+        this.quarter = quarter;
+    }
+
+    public Integer getParticipants() {
+        return participants;
+    }
+
+    public void setParticipants(Integer participants) {
+        this.participants = participants;
+    }
+
+    public Long getMinutesRendered() {
+        return minutesRendered;
+    }
+
+    public void setMinutesRendered(Long minutesRendered) {
+        this.minutesRendered = minutesRendered;
+    }
+
+    public Integer getRequirementsTouched() {
+        return requirementsTouched;
+    }
+
+    public void setRequirementsTouched(Integer requirementsTouched) {
+        this.requirementsTouched = requirementsTouched;
+    }
+
+    public Integer getRequirementsCompleted() {
+        return requirementsCompleted;
+    }
+
+    public void setRequirementsCompleted(Integer requirementsCompleted) {
+        this.requirementsCompleted = requirementsCompleted;
+    }
+}
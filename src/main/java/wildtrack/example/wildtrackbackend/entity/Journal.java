@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "journals")
+@Table(name = "journals", indexes = {
+        @Index(name = "idx_journals_id_number_activity", columnList = "id_number, activity"),
+        @Index(name = "idx_journals_activity", columnList = "activity")
+})
 public class Journal {
 
     @Id
@@ -0,0 +1,168 @@
+package wildtrack.example.wildtrackbackend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A time-in or time-out scan sent by an entrance kiosk, keyed by the
+ * kiosk's idempotency key. The row is written before the scan is applied, so
+ * a replayed key is answered from here instead of being recorded twice.
+ */
+@Entity
+@Table(name = "kiosk_scans", uniqueConstraints = @UniqueConstraint(name = "uk_kiosk_scans_idempotency_key", columnNames = {
+        "idempotency_key" }), indexes = {
+                @Index(name = "idx_kiosk_scans_id_number_scanned_at", columnList = "id_number, scanned_at")
+        })
+public class KioskScan {
+
+    // Scan types
+    public static final String TYPE_TIME_IN = "TIME_IN";
+    public static final String TYPE_TIME_OUT = "TIME_OUT";
+
+    // Statuses
+    public static final String STATUS_PROCESSING = "PROCESSING";
+    public static final String STATUS_ACCEPTED = "ACCEPTED";
+    public static final String STATUS_REJECTED = "REJECTED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "idempotency_key", nullable = false, length = 128)
+    private String idempotencyKey;
+
+    @Column(name = "kiosk_id", length = 64)
+    private String kioskId;
+
+    @Column(name = "id_number", nullable = false)
+    private String idNumber;
+
+    @Column(name = "scan_type", nullable = false, length = 16)
+    private String scanType;
+
+    @Column(name = "subject")
+    private String subject;
+
+    // When the student scanned, as reported by the kiosk (Manila time)
+    @Column(name = "scanned_at", nullable = false)
+    private LocalDateTime scannedAt;
+
+    // When the server claimed the key (Manila time); a PROCESSING claim older
+    // than the lease may be taken over by a retry
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+
+    @Column(name = "status", nullable = false, length = 16)
+    private String status = STATUS_PROCESSING;
+
+    @Column(name = "message", length = 1000)
+    private String message;
+
+    // The session opened or closed by the scan
+    @Column(name = "library_hours_id")
+    private Long libraryHoursId;
+
+    // Default constructor
+    public KioskScan() {
+    }
+
+    public KioskScan(String idempotencyKey, String kioskId, String idNumber, String scanType, String subject,
+            LocalDateTime scannedAt, LocalDateTime receivedAt) {
+        this.idempotencyKey = idempotencyKey;
+        this.kioskId = kioskId;
+        this.idNumber = idNumber;
+        this.scanType = scanType;
+        this.subject = subject;
+        this.scannedAt = scannedAt;
+        this.receivedAt = receivedAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getKioskId() {
+        return kioskId;
+    }
+
+    public void setKioskId(String kioskId) {
+        this.kioskId = kioskId;
+    }
+
+    public String getIdNumber() {
+        return idNumber;
+    }
+
+    public void setIdNumber(String idNumber) {
+        this.idNumber = idNumber;
+    }
+
+    public String getScanType() {
+        return scanType;
+    }
+
+    public void setScanType(String scanType) {
+        this.scanType = scanType;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public LocalDateTime getScannedAt() {
+        return scannedAt;
+    }
+
+    public void setScannedAt(LocalDateTime scannedAt) {
+        this.scannedAt = scannedAt;
+    }
+
+    public LocalDateTime getReceivedAt() {
+        return receivedAt;
+    }
+
+    public void setReceivedAt(LocalDateTime receivedAt) {
+        this.receivedAt = receivedAt;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Long getLibraryHoursId() {
+        return libraryHoursId;
+    }
+
+    public void setLibraryHoursId(Long libraryHoursId) {
+        this.libraryHoursId = libraryHoursId;
+    }
+}
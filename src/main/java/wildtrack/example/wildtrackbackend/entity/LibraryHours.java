@@ -4,7 +4,13 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "library_hours")
+@Table(name = "library_hours", indexes = {
+        @Index(name = "idx_library_hours_id_number_time_out", columnList = "id_number, time_out"),
+        @Index(name = "idx_library_hours_id_number_time_in", columnList = "id_number, time_in"),
+        @Index(name = "idx_library_hours_time_out", columnList = "time_out"),
+        @Index(name = "idx_library_hours_requirement_id_time_in", columnList = "requirement_id, time_in"),
+        @Index(name = "uk_library_hours_open_id_number", columnList = "open_id_number", unique = true)
+})
 public class LibraryHours {
 
     @Id
@@ -105,6 +111,12 @@ public class LibraryHours {
 
     private LocalDateTime timeOut;
 
+    // The student's ID number while the session is open, NULL once timed out.
+    // Maintained by MySQL; its unique index allows one open session per student.
+    @Column(name = "open_id_number", insertable = false, updatable = false,
+            columnDefinition = "VARCHAR(255) GENERATED ALWAYS AS (IF(time_out IS NULL, id_number, NULL)) STORED")
+    private String openIdNumber;
+
     // Getters and setters
     public Long getId() {
         return id;
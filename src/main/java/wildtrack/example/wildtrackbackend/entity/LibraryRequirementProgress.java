@@ -1,5 +1,7 @@
 package wildtrack.example.wildtrackbackend.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -10,7 +12,11 @@ import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 @Entity
-@Table(name = "library_requirement_progress")
+@Table(name = "library_requirement_progress", indexes = {
+        @Index(name = "idx_lrp_student_id_is_completed", columnList = "student_id, is_completed"),
+        @Index(name = "idx_lrp_requirement_id", columnList = "requirement_id"),
+        @Index(name = "idx_lrp_last_updated", columnList = "last_updated")
+})
 public class LibraryRequirementProgress {
 
     private static final Logger logger = Logger.getLogger(LibraryRequirementProgress.class.getName());
@@ -49,9 +55,15 @@ public class LibraryRequirementProgress {
     @Column(name = "last_updated")
     private LocalDate lastUpdated;
 
+    // Day the requirement was completed; lastUpdated keeps moving with later credits
+    @Column(name = "completed_on")
+    private LocalDate completedOn;
+
     @Column(name = "academic_year")
     private String academicYear;
 
+    // Legacy comma-separated session ids, no longer written. Contributing sessions
+    // are linked through library_hours.requirement_id.
     @Column(name = "contributing_library_hours_ids", length = 1000)
     private String contributingLibraryHoursIds = "";
 
@@ -84,12 +96,16 @@ public class LibraryRequirementProgress {
         if (this.quarter == null)
             return;
 
+        this.academicYear = academicYearForQuarter(this.quarter);
+    }
+
+    // Academic year a quarter falls in, relative to the current year
+    public static String academicYearForQuarter(String quarter) {
         int currentYear = LocalDate.now().getYear();
-        if (this.quarter.equals("First") || this.quarter.equals("Second")) {
-            this.academicYear = currentYear + "-" + (currentYear + 1);
-        } else {
-            this.academicYear = (currentYear - 1) + "-" + currentYear;
+        if (quarter.equals("First") || quarter.equals("Second")) {
+            return currentYear + "-" + (currentYear + 1);
         }
+        return (currentYear - 1) + "-" + currentYear;
     }
 
     // Add minutes rendered and automatically complete if threshold is met
@@ -100,6 +116,7 @@ public class LibraryRequirementProgress {
         // Automatically mark as completed when required minutes are reached
         if (this.minutesRendered >= this.requiredMinutes && !this.isCompleted) {
             this.isCompleted = true;
+            this.completedOn = LocalDate.now();
         }
     }
 
@@ -131,8 +148,14 @@ public class LibraryRequirementProgress {
         }
     }
 
-    // Helper methods for managing contributing library hours ids
+    // Parse the legacy contributing session ids (used when migrating them)
+    @JsonIgnore
     public List<Long> getContributingLibraryHoursIdsList() {
+        return parseContributingLibraryHoursIds(contributingLibraryHoursIds);
+    }
+
+    // Parse a comma-separated contributing_library_hours_ids value
+    public static List<Long> parseContributingLibraryHoursIds(String contributingLibraryHoursIds) {
         if (contributingLibraryHoursIds == null || contributingLibraryHoursIds.isEmpty()) {
             return new ArrayList<>();
         }
@@ -156,30 +179,6 @@ public class LibraryRequirementProgress {
         }
     }
 
-    public void addContributingLibraryHoursId(Long id) {
-        if (id == null) {
-            return; // Skip null IDs
-        }
-
-        List<Long> ids = getContributingLibraryHoursIdsList();
-
-        // Validate maximum length to prevent overflows
-        if (ids.size() >= 1000) {
-            // If too many IDs, remove oldest ones to make space
-            while (ids.size() >= 1000) {
-                ids.remove(0);
-            }
-        }
-
-        // Avoid duplicates
-        if (!ids.contains(id)) {
-            ids.add(id);
-            this.contributingLibraryHoursIds = ids.stream()
-                    .map(String::valueOf)
-                    .collect(Collectors.joining(","));
-        }
-    }
-
     // Getters and Setters
     public Long getId() {
         return id;
@@ -248,6 +247,7 @@ public class LibraryRequirementProgress {
         // Automatically complete when required minutes are reached
         if (this.minutesRendered >= this.requiredMinutes && !this.isCompleted) {
             this.isCompleted = true;
+            this.completedOn = LocalDate.now();
         }
 
         this.lastUpdated = LocalDate.now();
@@ -266,6 +266,11 @@ public class LibraryRequirementProgress {
     }
 
     public void setIsCompleted(Boolean isCompleted) {
+        if (Boolean.TRUE.equals(isCompleted) && !Boolean.TRUE.equals(this.isCompleted)) {
+            this.completedOn = LocalDate.now();
+        } else if (!Boolean.TRUE.equals(isCompleted)) {
+            this.completedOn = null;
+        }
         this.isCompleted = isCompleted;
     }
 
@@ -277,6 +282,14 @@ public class LibraryRequirementProgress {
         this.lastUpdated = lastUpdated;
     }
 
+    public LocalDate getCompletedOn() {
+        return completedOn;
+    }
+
+    public void setCompletedOn(LocalDate completedOn) {
+        this.completedOn = completedOn;
+    }
+
     public String getAcademicYear() {
         return academicYear;
     }
@@ -285,6 +298,7 @@ public class LibraryRequirementProgress {
         this.academicYear = academicYear;
     }
 
+    @JsonIgnore
     public String getContributingLibraryHoursIds() {
         return contributingLibraryHoursIds;
     }
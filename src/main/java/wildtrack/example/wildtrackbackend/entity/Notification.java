@@ -4,7 +4,12 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_user_id_is_read", columnList = "user_id, is_read"),
+        @Index(name = "idx_notifications_user_id_created_at", columnList = "user_id, created_at"),
+        @Index(name = "idx_notifications_grade_level_created_at", columnList = "grade_level, created_at"),
+        @Index(name = "idx_notifications_reference_id", columnList = "reference_id")
+})
 public class Notification {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
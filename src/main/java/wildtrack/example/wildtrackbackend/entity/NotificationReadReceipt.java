@@ -0,0 +1,79 @@
+package wildtrack.example.wildtrackbackend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Per-user state of a grade-level broadcast notification.
+ * A row exists only once the user has read (or dismissed) the broadcast;
+ * no row means unread.
+ */
+@Entity
+@Table(name = "notification_read_receipts", uniqueConstraints = @UniqueConstraint(name = "uk_notification_read_receipts_notification_user", columnNames = {
+        "notification_id", "user_id" }), indexes = {
+                @Index(name = "idx_notification_read_receipts_user_id", columnList = "user_id")
+        })
+public class NotificationReadReceipt {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "notification_id", nullable = false)
+    private Long notificationId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "read_at", nullable = false)
+    private LocalDateTime readAt;
+
+    // Dismissed broadcasts are hidden from the user's list
+    @Column(name = "dismissed", nullable = false)
+    private boolean dismissed = false;
+
+    // Default constructor
+    public NotificationReadReceipt() {
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getNotificationId() {
+        return notificationId;
+    }
+
+    public void setNotificationId(Long notificationId) {
+        this.notificationId = notificationId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LocalDateTime getReadAt() {
+        return readAt;
+    }
+
+    public void setReadAt(LocalDateTime readAt) {
+        this.readAt = readAt;
+    }
+
+    public boolean isDismissed() {
+        return dismissed;
+    }
+
+    public void setDismissed(boolean dismissed) {
+        this.dismissed = dismissed;
+    }
+}
@@ -0,0 +1,45 @@
+package wildtrack.example.wildtrackbackend.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Named counter used to hand out sequential numbers (e.g. journal entry
+ * numbers). nextValue is the first value that has not been allocated yet.
+ */
+@Entity
+@Table(name = "sequence_counters")
+public class SequenceCounter {
+
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+
+    // Default constructor
+    public SequenceCounter() {
+    }
+
+    public SequenceCounter(String name, Long nextValue) {
+        this.name = name;
+        this.nextValue = nextValue;
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Long getNextValue() {
+        return nextValue;
+    }
+
+    public void setNextValue(Long nextValue) {
+        this.nextValue = nextValue;
+    }
+}
@@ -5,6 +5,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.persistence.Transient;
@@ -12,7 +13,10 @@ import java.time.LocalDateTime;
 import java.util.logging.Logger;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_role_grade", columnList = "role, grade"),
+        @Index(name = "idx_users_grade_section", columnList = "grade, section")
+})
 public class User {
     private static final Logger logger = Logger.getLogger(User.class.getName());
 
@@ -0,0 +1,42 @@
+package wildtrack.example.wildtrackbackend.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import wildtrack.example.wildtrackbackend.entity.DailyLibraryParticipation;
+
+@Repository
+public interface DailyLibraryParticipationRepository extends JpaRepository<DailyLibraryParticipation, Long> {
+
+    // Atomically add to the participation row for a day, grade and section
+    @Modifying
+    @Query(value = "INSERT INTO daily_library_participation (stat_date, grade_level, section, participants) " +
+            "VALUES (:statDate, :gradeLevel, :section, :participants) " +
+            "ON DUPLICATE KEY UPDATE participants = participants + VALUES(participants)", nativeQuery = true)
+    int increment(@Param("statDate") LocalDate statDate,
+            @Param("gradeLevel") String gradeLevel,
+            @Param("section") String section,
+            @Param("participants") int participants);
+
+    // Remove a day's rows before it is rebuilt
+    @Modifying
+    @Query("DELETE FROM DailyLibraryParticipation p WHERE p.statDate = :statDate")
+    int deleteByStatDate(@Param("statDate") LocalDate statDate);
+
+    // Distinct students per day; a student is in one grade and section, so rows add up
+    @Query("SELECT p.statDate, SUM(p.participants) FROM DailyLibraryParticipation p " +
+            "WHERE p.statDate BETWEEN :startDate AND :endDate " +
+            "AND (:gradeLevel IS NULL OR p.gradeLevel = :gradeLevel OR CONCAT('Grade ', p.gradeLevel) = :gradeLevel) " +
+            "AND (:section IS NULL OR p.section = :section) " +
+            "GROUP BY p.statDate")
+    List<Object[]> sumByDay(@Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("gradeLevel") String gradeLevel,
+            @Param("section") String section);
+}
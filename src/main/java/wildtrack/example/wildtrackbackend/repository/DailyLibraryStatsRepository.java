@@ -0,0 +1,60 @@
+package wildtrack.example.wildtrackbackend.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import wildtrack.example.wildtrackbackend.entity.DailyLibraryStats;
+
+@Repository
+public interface DailyLibraryStatsRepository extends JpaRepository<DailyLibraryStats, Long> {
+
+    // Atomically add to the rollup row for a key, creating it if it doesn't exist
+    @Modifying
+    @Query(value = "INSERT INTO daily_library_stats " +
+            "(stat_date, grade_level, section, subject, quarter, participants, minutes_rendered, " +
+            "requirements_touched, requirements_completed) " +
+            "VALUES (:statDate, :gradeLevel, :section, :subject, :quarter, :participants, :minutes, " +
+            ":touched, :completed) " +
+            "ON DUPLICATE KEY UPDATE participants = participants + VALUES(participants), " +
+            "minutes_rendered = minutes_rendered + VALUES(minutes_rendered), " +
+            "requirements_touched = requirements_touched + VALUES(requirements_touched), " +
+            "requirements_completed = requirements_completed + VALUES(requirements_completed)", nativeQuery = true)
+    int increment(@Param("statDate") LocalDate statDate,
+            @Param("gradeLevel") String gradeLevel,
+            @Param("section") String section,
+            @Param("subject") String subject,
+            @Param("quarter") String quarter,
+            @Param("participants") int participants,
+            @Param("minutes") long minutes,
+            @Param("touched") int touched,
+            @Param("completed") int completed);
+
+    // Remove rollup rows for a single day before it is rebuilt
+    @Modifying
+    @Query("DELETE FROM DailyLibraryStats s WHERE s.statDate = :statDate")
+    int deleteByStatDate(@Param("statDate") LocalDate statDate);
+
+    // Daily totals across all keys matching the optional filters. Participants are
+    // distinct per key, so their sum is only a distinct count when subject and
+    // quarter are both fixed.
+    @Query("SELECT s.statDate, SUM(s.minutesRendered), SUM(s.requirementsTouched), " +
+            "SUM(s.requirementsCompleted), SUM(s.participants) FROM DailyLibraryStats s " +
+            "WHERE s.statDate BETWEEN :startDate AND :endDate " +
+            "AND (:gradeLevel IS NULL OR s.gradeLevel = :gradeLevel OR CONCAT('Grade ', s.gradeLevel) = :gradeLevel) " +
+            "AND (:section IS NULL OR s.section = :section) " +
+            "AND (:subject IS NULL OR s.subject = :subject) " +
+            "AND (:quarter IS NULL OR s.quarter = :quarter) " +
+            "GROUP BY s.statDate ORDER BY s.statDate")
+    List<Object[]> sumByDay(@Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("gradeLevel") String gradeLevel,
+            @Param("section") String section,
+            @Param("subject") String subject,
+            @Param("quarter") String quarter);
+}
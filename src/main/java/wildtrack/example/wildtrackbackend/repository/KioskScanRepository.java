@@ -0,0 +1,30 @@
+package wildtrack.example.wildtrackbackend.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import wildtrack.example.wildtrackbackend.entity.KioskScan;
+
+@Repository
+public interface KioskScanRepository extends JpaRepository<KioskScan, Long> {
+
+    Optional<KioskScan> findByIdempotencyKey(String idempotencyKey);
+
+    // Scans already received for a batch of keys
+    List<KioskScan> findByIdempotencyKeyIn(Collection<String> idempotencyKeys);
+
+    // Take over a claim left in PROCESSING since before the lease cutoff
+    @Modifying
+    @Query("UPDATE KioskScan s SET s.receivedAt = :now " +
+            "WHERE s.id = :id AND s.status = 'PROCESSING' AND s.receivedAt < :claimedBefore")
+    int reclaim(@Param("id") Long id, @Param("now") LocalDateTime now,
+            @Param("claimedBefore") LocalDateTime claimedBefore);
+}
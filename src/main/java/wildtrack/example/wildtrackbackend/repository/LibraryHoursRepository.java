@@ -1,12 +1,17 @@
 package wildtrack.example.wildtrackbackend.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import wildtrack.example.wildtrackbackend.entity.LibraryHours;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,16 +25,55 @@ public interface LibraryHoursRepository extends JpaRepository<LibraryHours, Long
         // Find pending time-in records (where time-out is null)
         List<LibraryHours> findByIdNumberAndTimeOutIsNullOrderByTimeInDesc(String idNumber);
 
+        // Most recent open session for a student (LIMIT 1)
+        Optional<LibraryHours> findFirstByIdNumberAndTimeOutIsNullOrderByTimeInDesc(String idNumber);
+
+        // Most recent session for a student, open or not (LIMIT 1)
+        Optional<LibraryHours> findFirstByIdNumberOrderByTimeInDesc(String idNumber);
+
         // Find library hours for a specific subject
         List<LibraryHours> findByIdNumberAndSubject(String idNumber, String subject);
 
         // Add this method to find all records with null timeOut
         List<LibraryHours> findByTimeOutIsNull();
 
+        // Close every open session at closeTime in one statement. Sessions with a book are
+        // counted; the rest are flagged for a book assignment before they can be credited.
+        @Modifying
+        @Query(value = "UPDATE library_hours SET time_out = :closeTime, " +
+                        "minutes_counted = TIMESTAMPDIFF(MINUTE, time_in, :closeTime), " +
+                        "is_counted = (book_title IS NOT NULL AND TRIM(book_title) <> ''), " +
+                        "requires_book_assignment = NOT (book_title IS NOT NULL AND TRIM(book_title) <> '') " +
+                        "WHERE time_out IS NULL", nativeQuery = true)
+        int closeOpenSessions(@Param("closeTime") LocalDateTime closeTime);
+
+        // Sessions closed at closeTime that still need crediting, as {id, idNumber} rows
+        @Query("SELECT lh.id, lh.idNumber FROM LibraryHours lh " +
+                        "WHERE lh.timeOut = :closeTime AND lh.isCounted = true AND lh.requirementId IS NULL " +
+                        "ORDER BY lh.idNumber, lh.id")
+        List<Object[]> findSessionsToCredit(@Param("closeTime") LocalDateTime closeTime);
+
+        // Counted sessions closed in the window that were never credited, as {id, idNumber} rows
+        @Query("SELECT lh.id, lh.idNumber FROM LibraryHours lh " +
+                        "WHERE lh.timeOut BETWEEN :startTime AND :endTime AND lh.isCounted = true " +
+                        "AND lh.requirementId IS NULL ORDER BY lh.idNumber, lh.id")
+        List<Object[]> findUncreditedSessions(@Param("startTime") LocalDateTime startTime,
+                        @Param("endTime") LocalDateTime endTime);
+
         // Add this method to fix the error - find all library hours with requirementId
         // not null
         List<LibraryHours> findByRequirementIdIsNotNull();
 
+        // Sessions credited to a progress record (library_hours.requirement_id holds the
+        // LibraryRequirementProgress id)
+        Page<LibraryHours> findByRequirementId(Long progressId, Pageable pageable);
+
+        // Link sessions to a progress record unless they are already linked
+        @Modifying
+        @Query("UPDATE LibraryHours lh SET lh.requirementId = :progressId " +
+                        "WHERE lh.id IN :ids AND lh.requirementId IS NULL")
+        int linkToRequirement(@Param("progressId") Long progressId, @Param("ids") Collection<Long> ids);
+
         // Find library hours associated with a specific requirement
         List<LibraryHours> findByIdNumberAndRequirementId(String idNumber, Long requirementId);
 
@@ -56,8 +100,7 @@ public interface LibraryHoursRepository extends JpaRepository<LibraryHours, Long
         List<LibraryHours> findAllByIdNumberOrdered(@Param("idNumber") String idNumber);
 
         default Optional<LibraryHours> findLatestByIdNumber(String idNumber) {
-                List<LibraryHours> results = findAllByIdNumberOrdered(idNumber);
-                return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+                return findFirstByIdNumberOrderByTimeInDesc(idNumber);
         }
 
         long countByIdNumberInAndTimeOutIsNotNullAndTimeInBetween(
@@ -70,5 +113,53 @@ public interface LibraryHoursRepository extends JpaRepository<LibraryHours, Long
         long countDistinctUsersByIdNumberInAndTimeInBetween(List<String> idNumbers, LocalDateTime startTime,
                         LocalDateTime endTime);
 
-        List<LibraryHours> findByIdNumberAndRequiresBookAssignmentTrue(String idNumber);
+        // Sessions still waiting for a book before the student may time in again
+        long countByIdNumberAndRequiresBookAssignmentTrue(String idNumber);
+
+        // Credited time for one day grouped by the daily rollup key
+        // (library_hours.requirement_id points at the credited progress record).
+        // Grade and section are the student's current ones.
+        @Query("SELECT u.grade, u.section, p.subject, p.quarter, COUNT(DISTINCT lh.idNumber), " +
+                        "SUM(lh.minutesCounted), COUNT(DISTINCT p.id), " +
+                        "COUNT(DISTINCT CASE WHEN p.isCompleted = true AND p.completedOn = :statDate THEN p.id END) " +
+                        "FROM LibraryHours lh " +
+                        "JOIN LibraryRequirementProgress p ON p.id = lh.requirementId " +
+                        "JOIN User u ON u.idNumber = lh.idNumber " +
+                        "WHERE lh.isCounted = true AND lh.timeOut BETWEEN :startTime AND :endTime " +
+                        "GROUP BY u.grade, u.section, p.subject, p.quarter")
+        List<Object[]> aggregateCreditedTimeByKey(@Param("statDate") LocalDate statDate,
+                        @Param("startTime") LocalDateTime startTime,
+                        @Param("endTime") LocalDateTime endTime);
+
+        // Distinct students credited for one day per grade and section
+        @Query("SELECT u.grade, u.section, COUNT(DISTINCT lh.idNumber) " +
+                        "FROM LibraryHours lh " +
+                        "JOIN User u ON u.idNumber = lh.idNumber " +
+                        "WHERE lh.isCounted = true AND lh.requirementId IS NOT NULL " +
+                        "AND lh.timeOut BETWEEN :startTime AND :endTime " +
+                        "GROUP BY u.grade, u.section")
+        List<Object[]> countCreditedStudentsBySection(@Param("startTime") LocalDateTime startTime,
+                        @Param("endTime") LocalDateTime endTime);
+
+        // Whether the student had another session credited in the time window
+        @Query("SELECT COUNT(lh) > 0 FROM LibraryHours lh WHERE lh.idNumber = :idNumber AND lh.id <> :sessionId " +
+                        "AND lh.isCounted = true AND lh.requirementId IS NOT NULL " +
+                        "AND lh.timeOut BETWEEN :startTime AND :endTime")
+        boolean existsOtherCreditBetween(@Param("idNumber") String idNumber,
+                        @Param("sessionId") Long sessionId,
+                        @Param("startTime") LocalDateTime startTime,
+                        @Param("endTime") LocalDateTime endTime);
+
+        // Same, limited to sessions credited to a subject and quarter
+        @Query("SELECT COUNT(lh) > 0 FROM LibraryHours lh " +
+                        "JOIN LibraryRequirementProgress p ON p.id = lh.requirementId " +
+                        "WHERE lh.idNumber = :idNumber AND lh.id <> :sessionId AND lh.isCounted = true " +
+                        "AND lh.timeOut BETWEEN :startTime AND :endTime " +
+                        "AND p.subject = :subject AND p.quarter = :quarter")
+        boolean existsOtherCreditForKeyBetween(@Param("idNumber") String idNumber,
+                        @Param("sessionId") Long sessionId,
+                        @Param("subject") String subject,
+                        @Param("quarter") String quarter,
+                        @Param("startTime") LocalDateTime startTime,
+                        @Param("endTime") LocalDateTime endTime);
 }
\ No newline at end of file
@@ -1,15 +1,30 @@
 package wildtrack.example.wildtrackbackend.repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import wildtrack.example.wildtrackbackend.entity.LibraryRequirementProgress;
 
 @Repository
 public interface LibraryRequirementProgressRepository extends JpaRepository<LibraryRequirementProgress, Long> {
+        // Restricts progress rows to students matching the optional grade and section
+        // filters (grade may be given either as "7" or "Grade 7")
+        String STUDENT_FILTER = "p.studentId IN (SELECT u.idNumber FROM User u WHERE u.role = 'Student' " +
+                        "AND (:gradeLevel IS NULL OR u.grade = :gradeLevel OR CONCAT('Grade ', u.grade) = :gradeLevel) " +
+                        "AND (:section IS NULL OR u.section = :section))";
+
+        // Shared optional subject and quarter filters for statistics queries
+        String SUBJECT_QUARTER_FILTER = "(:quarter IS NULL OR p.quarter = :quarter) " +
+                        "AND (:subject IS NULL OR p.subject = :subject)";
+
         // Find all progress records for a student
         List<LibraryRequirementProgress> findByStudentId(String studentId);
 
@@ -23,6 +38,14 @@ public interface LibraryRequirementProgressRepository extends JpaRepository<Libr
         List<LibraryRequirementProgress> findByStudentIdAndSubjectAndQuarter(String studentId, String subject,
                         String quarter);
 
+        // Progress rows for a set of students, with optional subject and quarter filters
+        @Query("SELECT p FROM LibraryRequirementProgress p WHERE p.studentId IN :studentIds " +
+                        "AND (:subject IS NULL OR p.subject = :subject) " +
+                        "AND (:quarter IS NULL OR p.quarter = :quarter) ORDER BY p.id")
+        List<LibraryRequirementProgress> findForStudents(@Param("studentIds") Collection<String> studentIds,
+                        @Param("subject") String subject,
+                        @Param("quarter") String quarter);
+
         // NEW: Find all progress records linked to a specific requirement
         List<LibraryRequirementProgress> findByRequirementId(Long requirementId);
 
@@ -35,6 +58,58 @@ public interface LibraryRequirementProgressRepository extends JpaRepository<Libr
         // Find all in-progress requirements for a student
         List<LibraryRequirementProgress> findByStudentIdAndIsCompletedFalse(String studentId);
 
+        // Create the missing progress rows for one requirement in a single statement:
+        // one per student in the grade who joined it before the requirement was created
+        @Modifying
+        @Query(value = "INSERT INTO library_requirement_progress (student_id, requirement_id, subject, quarter, " +
+                        "grade_level, required_minutes, minutes_rendered, deadline, is_completed, last_updated, " +
+                        "academic_year, contributing_library_hours_ids) " +
+                        "SELECT u.id_number, :requirementId, :subject, :quarter, u.grade, :requiredMinutes, 0, " +
+                        ":deadline, false, :today, :academicYear, '' FROM users u " +
+                        "WHERE u.role = 'Student' AND u.grade = :gradeLevel " +
+                        "AND COALESCE(u.grade_updated_at, u.created_at, :fallbackJoinDate) < :createdAt " +
+                        "AND NOT EXISTS (SELECT 1 FROM library_requirement_progress p " +
+                        "WHERE p.student_id = u.id_number AND p.requirement_id = :requirementId)", nativeQuery = true)
+        int insertMissingForRequirement(@Param("requirementId") Long requirementId,
+                        @Param("subject") String subject,
+                        @Param("quarter") String quarter,
+                        @Param("gradeLevel") String gradeLevel,
+                        @Param("requiredMinutes") Integer requiredMinutes,
+                        @Param("deadline") LocalDate deadline,
+                        @Param("createdAt") LocalDateTime createdAt,
+                        @Param("fallbackJoinDate") LocalDateTime fallbackJoinDate,
+                        @Param("today") LocalDate today,
+                        @Param("academicYear") String academicYear);
+
+        // A student's progress rows joined with the requirement's task, its creator's
+        // name and the number of contributing sessions, earliest deadline first
+        // (no deadline last). Columns match the ActiveProgressDTO row constructor.
+        @Query("SELECT p.id, p.requirementId, p.studentId, p.subject, p.quarter, p.gradeLevel, " +
+                        "p.requiredMinutes, p.minutesRendered, p.deadline, p.isCompleted, r.task, " +
+                        "u.firstName, u.lastName, " +
+                        "(SELECT COUNT(lh) FROM LibraryHours lh WHERE lh.requirementId = p.id) " +
+                        "FROM LibraryRequirementProgress p " +
+                        "LEFT JOIN SetLibraryHours r ON r.id = p.requirementId " +
+                        "LEFT JOIN User u ON u.id = r.createdById " +
+                        "WHERE p.studentId = :studentId " +
+                        "ORDER BY CASE WHEN p.deadline IS NULL THEN 1 ELSE 0 END, p.deadline, p.id")
+        List<Object[]> findActiveProgressRows(@Param("studentId") String studentId);
+
+        // Progress ids and legacy contributing session lists after a checkpoint, in id order
+        @Query("SELECT p.id, p.contributingLibraryHoursIds FROM LibraryRequirementProgress p " +
+                        "WHERE p.id > :afterId AND p.contributingLibraryHoursIds IS NOT NULL " +
+                        "AND p.contributingLibraryHoursIds <> '' ORDER BY p.id")
+        List<Object[]> findLegacySessionIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+        @Query("SELECT COUNT(p) FROM LibraryRequirementProgress p " +
+                        "WHERE p.id > :afterId AND p.contributingLibraryHoursIds IS NOT NULL " +
+                        "AND p.contributingLibraryHoursIds <> ''")
+        long countLegacySessionIdsAfter(@Param("afterId") Long afterId);
+
+        // Requirement ids a student already has progress rows for
+        @Query("SELECT p.requirementId FROM LibraryRequirementProgress p WHERE p.studentId = :studentId")
+        List<Long> findRequirementIdsByStudentId(@Param("studentId") String studentId);
+
         // Find progress for a specific requirement and student
         Optional<LibraryRequirementProgress> findByStudentIdAndRequirementId(String studentId, Long requirementId);
 
@@ -92,4 +167,29 @@ public interface LibraryRequirementProgressRepository extends JpaRepository<Libr
 
         long countByStudentIdInAndIsCompletedTrueAndLastUpdatedBetween(
                         List<String> studentIds, LocalDate startDate, LocalDate endDate);
-}
\ No newline at end of file
+
+        // Unique participants per day for the statistics charts
+        @Query("SELECT p.lastUpdated, COUNT(DISTINCT p.studentId) FROM LibraryRequirementProgress p " +
+                        "WHERE p.lastUpdated BETWEEN :startDate AND :endDate AND p.minutesRendered > 0 " +
+                        "AND " + SUBJECT_QUARTER_FILTER + " AND " + STUDENT_FILTER +
+                        " GROUP BY p.lastUpdated")
+        List<Object[]> countParticipantsByDay(@Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate,
+                        @Param("gradeLevel") String gradeLevel,
+                        @Param("section") String section,
+                        @Param("quarter") String quarter,
+                        @Param("subject") String subject);
+
+        // Unique participants per month for the statistics charts
+        @Query("SELECT FUNCTION('YEAR', p.lastUpdated), FUNCTION('MONTH', p.lastUpdated), COUNT(DISTINCT p.studentId) " +
+                        "FROM LibraryRequirementProgress p " +
+                        "WHERE p.lastUpdated BETWEEN :startDate AND :endDate AND p.minutesRendered > 0 " +
+                        "AND " + SUBJECT_QUARTER_FILTER + " AND " + STUDENT_FILTER +
+                        " GROUP BY FUNCTION('YEAR', p.lastUpdated), FUNCTION('MONTH', p.lastUpdated)")
+        List<Object[]> countParticipantsByMonth(@Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate,
+                        @Param("gradeLevel") String gradeLevel,
+                        @Param("section") String section,
+                        @Param("quarter") String quarter,
+                        @Param("subject") String subject);
+}
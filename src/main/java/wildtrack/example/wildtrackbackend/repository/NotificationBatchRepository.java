@@ -0,0 +1,53 @@
+package wildtrack.example.wildtrackbackend.repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import wildtrack.example.wildtrackbackend.entity.Notification;
+
+/**
+ * Bulk insert path for notification fan-out.
+ * Notification ids are IDENTITY columns, which stops Hibernate from batching
+ * inserts, so rows go straight through JDBC batches instead. With the driver's
+ * rewriteBatchedStatements each batch is sent as one multi-row INSERT.
+ */
+@Repository
+public class NotificationBatchRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL = "INSERT INTO notifications " +
+            "(user_id, grade_level, title, message, created_at, is_read, notification_type, reference_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert all notifications in batches; returns the number of rows written.
+     * Generated ids are not read back.
+     */
+    public int insertAll(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, notifications, BATCH_SIZE, (ps, notification) -> {
+            ps.setObject(1, notification.getUserId(), Types.BIGINT);
+            ps.setString(2, notification.getGradeLevel());
+            ps.setString(3, notification.getTitle());
+            ps.setString(4, notification.getMessage());
+            ps.setTimestamp(5, Timestamp.valueOf(notification.getCreatedAt()));
+            ps.setBoolean(6, notification.isRead());
+            ps.setString(7, notification.getNotificationType());
+            ps.setObject(8, notification.getReferenceId(), Types.BIGINT);
+        });
+
+        return notifications.size();
+    }
+}
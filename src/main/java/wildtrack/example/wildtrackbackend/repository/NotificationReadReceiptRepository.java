@@ -0,0 +1,71 @@
+package wildtrack.example.wildtrackbackend.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import wildtrack.example.wildtrackbackend.entity.NotificationReadReceipt;
+
+@Repository
+public interface NotificationReadReceiptRepository extends JpaRepository<NotificationReadReceipt, Long> {
+
+    // Which of the given broadcasts the user has already read
+    @Query("SELECT r.notificationId FROM NotificationReadReceipt r " +
+            "WHERE r.userId = :userId AND r.notificationId IN :notificationIds")
+    List<Long> findReadNotificationIds(@Param("userId") Long userId,
+            @Param("notificationIds") Collection<Long> notificationIds);
+
+    // Record a read; a second read of the same broadcast is a no-op
+    @Modifying
+    @Query(value = "INSERT INTO notification_read_receipts (notification_id, user_id, read_at, dismissed) " +
+            "VALUES (:notificationId, :userId, :readAt, false) " +
+            "ON DUPLICATE KEY UPDATE notification_id = notification_id", nativeQuery = true)
+    int markRead(@Param("notificationId") Long notificationId,
+            @Param("userId") Long userId,
+            @Param("readAt") LocalDateTime readAt);
+
+    // Hide a broadcast for one user (also counts as read)
+    @Modifying
+    @Query(value = "INSERT INTO notification_read_receipts (notification_id, user_id, read_at, dismissed) " +
+            "VALUES (:notificationId, :userId, :readAt, true) " +
+            "ON DUPLICATE KEY UPDATE dismissed = true", nativeQuery = true)
+    int markDismissed(@Param("notificationId") Long notificationId,
+            @Param("userId") Long userId,
+            @Param("readAt") LocalDateTime readAt);
+
+    // Mark every unread broadcast for the user's grade as read in one statement
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO notification_read_receipts (notification_id, user_id, read_at, dismissed) " +
+            "SELECT n.id, :userId, :readAt, false FROM notifications n " +
+            "WHERE n.user_id IS NULL AND n.grade_level IN (:gradeLevels) AND n.created_at >= :since", nativeQuery = true)
+    int markAllBroadcastsRead(@Param("userId") Long userId,
+            @Param("gradeLevels") Collection<String> gradeLevels,
+            @Param("since") LocalDateTime since,
+            @Param("readAt") LocalDateTime readAt);
+
+    // Same as markAllBroadcastsRead, limited to one notification type
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO notification_read_receipts (notification_id, user_id, read_at, dismissed) " +
+            "SELECT n.id, :userId, :readAt, false FROM notifications n " +
+            "WHERE n.user_id IS NULL AND n.grade_level IN (:gradeLevels) AND n.created_at >= :since " +
+            "AND n.notification_type = :type", nativeQuery = true)
+    int markBroadcastsReadByType(@Param("userId") Long userId,
+            @Param("gradeLevels") Collection<String> gradeLevels,
+            @Param("since") LocalDateTime since,
+            @Param("type") String type,
+            @Param("readAt") LocalDateTime readAt);
+
+    @Modifying
+    @Query("DELETE FROM NotificationReadReceipt r WHERE r.notificationId IN :notificationIds")
+    int deleteByNotificationIdIn(@Param("notificationIds") Collection<Long> notificationIds);
+
+    @Modifying
+    @Query("DELETE FROM NotificationReadReceipt r WHERE r.notificationId = :notificationId")
+    int deleteByNotificationId(@Param("notificationId") Long notificationId);
+}
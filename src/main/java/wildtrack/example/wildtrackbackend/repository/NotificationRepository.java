@@ -1,11 +1,15 @@
 package wildtrack.example.wildtrackbackend.repository;
 
 import wildtrack.example.wildtrackbackend.entity.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -36,4 +40,93 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     // Count unread notifications for a user
     @Query("SELECT COUNT(n) FROM Notification n WHERE (n.userId = :userId OR (n.gradeLevel = :gradeLevel AND n.userId IS NULL)) AND n.isRead = false")
     Long countUnreadNotifications(@Param("userId") Long userId, @Param("gradeLevel") String gradeLevel);
-}
\ No newline at end of file
+
+    // Personal notifications plus the grade broadcasts the user hasn't dismissed
+    @Query("SELECT n FROM Notification n WHERE n.userId = :userId " +
+            "OR (n.userId IS NULL AND n.gradeLevel IN :gradeLevels AND n.createdAt >= :since " +
+            "AND NOT EXISTS (SELECT r.id FROM NotificationReadReceipt r " +
+            "WHERE r.notificationId = n.id AND r.userId = :userId AND r.dismissed = true)) " +
+            "ORDER BY n.createdAt DESC")
+    List<Notification> findPersonalAndBroadcast(@Param("userId") Long userId,
+            @Param("gradeLevels") Collection<String> gradeLevels,
+            @Param("since") LocalDateTime since);
+
+    // Grade broadcasts without a read receipt for the user
+    @Query("SELECT COUNT(n) FROM Notification n WHERE n.userId IS NULL AND n.gradeLevel IN :gradeLevels " +
+            "AND n.createdAt >= :since AND NOT EXISTS (SELECT r.id FROM NotificationReadReceipt r " +
+            "WHERE r.notificationId = n.id AND r.userId = :userId)")
+    Long countUnreadBroadcasts(@Param("userId") Long userId,
+            @Param("gradeLevels") Collection<String> gradeLevels,
+            @Param("since") LocalDateTime since);
+
+    // Feed page of personal notifications older than the (createdAt, id) cursor.
+    // Columns: id, title, message preview, message length, createdAt, read, type, referenceId, gradeLevel
+    @Query("SELECT n.id, n.title, SUBSTRING(n.message, 1, 160), LENGTH(n.message), n.createdAt, n.isRead, " +
+            "n.notificationType, n.referenceId, n.gradeLevel FROM Notification n " +
+            "WHERE n.userId = :userId AND (:unreadOnly = false OR n.isRead = false) " +
+            "AND (n.createdAt < :cursorAt OR (n.createdAt = :cursorAt AND n.id < :cursorId)) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Object[]> findPersonalFeedPage(@Param("userId") Long userId,
+            @Param("unreadOnly") boolean unreadOnly,
+            @Param("cursorAt") LocalDateTime cursorAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    // Feed page of grade broadcasts older than the cursor, with the user's read state
+    @Query("SELECT n.id, n.title, SUBSTRING(n.message, 1, 160), LENGTH(n.message), n.createdAt, " +
+            "CASE WHEN r.id IS NULL THEN false ELSE true END, " +
+            "n.notificationType, n.referenceId, n.gradeLevel FROM Notification n " +
+            "LEFT JOIN NotificationReadReceipt r ON r.notificationId = n.id AND r.userId = :userId " +
+            "WHERE n.userId IS NULL AND n.gradeLevel IN :gradeLevels AND n.createdAt >= :since " +
+            "AND (r.id IS NULL OR r.dismissed = false) AND (:unreadOnly = false OR r.id IS NULL) " +
+            "AND (n.createdAt < :cursorAt OR (n.createdAt = :cursorAt AND n.id < :cursorId)) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Object[]> findBroadcastFeedPage(@Param("userId") Long userId,
+            @Param("gradeLevels") Collection<String> gradeLevels,
+            @Param("since") LocalDateTime since,
+            @Param("unreadOnly") boolean unreadOnly,
+            @Param("cursorAt") LocalDateTime cursorAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    // Mark all of a user's personal notifications as read in one statement
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.userId = :userId AND n.isRead = false")
+    int markAllReadForUser(@Param("userId") Long userId);
+
+    // Mark a user's personal notifications of one type as read
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true " +
+            "WHERE n.userId = :userId AND n.notificationType = :type AND n.isRead = false")
+    int markReadForUserByType(@Param("userId") Long userId, @Param("type") String type);
+
+    // Delete a user's read personal notifications created before the cutoff
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.userId = :userId AND n.isRead = true AND n.createdAt < :before")
+    int deleteReadForUserOlderThan(@Param("userId") Long userId, @Param("before") LocalDateTime before);
+
+    // Retention: delete up to :limit read personal notifications created before the cutoff
+    @Modifying
+    @Query(value = "DELETE FROM notifications WHERE user_id IS NOT NULL AND is_read = true " +
+            "AND created_at < :before LIMIT :limit", nativeQuery = true)
+    int deleteReadOlderThan(@Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    // Retention: ids of grade broadcasts created before the cutoff that every
+    // student who receives them has read or dismissed. A student receives a
+    // broadcast when it matches their grade (with or without the "Grade " prefix)
+    // and was sent after they joined that grade.
+    @Query("SELECT n.id FROM Notification n WHERE n.userId IS NULL AND n.gradeLevel IS NOT NULL " +
+            "AND n.createdAt < :before AND NOT EXISTS (SELECT u.id FROM User u " +
+            "WHERE u.role = 'Student' AND (u.grade = n.gradeLevel OR CONCAT('Grade ', u.grade) = n.gradeLevel " +
+            "OR u.grade = CONCAT('Grade ', n.gradeLevel)) " +
+            "AND (u.createdAt IS NULL OR u.createdAt <= n.createdAt) " +
+            "AND (u.gradeUpdatedAt IS NULL OR u.gradeUpdatedAt <= n.createdAt) " +
+            "AND NOT EXISTS (SELECT r.id FROM NotificationReadReceipt r " +
+            "WHERE r.notificationId = n.id AND r.userId = u.id)) " +
+            "ORDER BY n.id")
+    List<Long> findBroadcastIdsOlderThan(@Param("before") LocalDateTime before, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
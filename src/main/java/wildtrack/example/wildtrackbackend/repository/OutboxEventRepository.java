@@ -0,0 +1,35 @@
+package wildtrack.example.wildtrackbackend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import wildtrack.example.wildtrackbackend.entity.OutboxEvent;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Oldest events that are due for an attempt
+    List<OutboxEvent> findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(String status, LocalDateTime now,
+            Pageable pageable);
+
+    long countByStatus(String status);
+
+    // Claim a pending event; returns 0 if another dispatcher got it first
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = 'PROCESSING', e.claimedAt = :now " +
+            "WHERE e.id = :id AND e.status = 'PENDING'")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Put events back whose dispatcher stopped before finishing them
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = 'PENDING' " +
+            "WHERE e.status = 'PROCESSING' AND e.claimedAt < :claimedBefore")
+    int releaseStale(@Param("claimedBefore") LocalDateTime claimedBefore);
+}
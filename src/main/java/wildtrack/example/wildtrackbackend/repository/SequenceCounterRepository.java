@@ -0,0 +1,21 @@
+package wildtrack.example.wildtrackbackend.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+import wildtrack.example.wildtrackbackend.entity.SequenceCounter;
+
+@Repository
+public interface SequenceCounterRepository extends JpaRepository<SequenceCounter, String> {
+
+    // Read a counter with SELECT ... FOR UPDATE so concurrent allocators queue on the row
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM SequenceCounter s WHERE s.name = :name")
+    Optional<SequenceCounter> findByNameForUpdate(@Param("name") String name);
+}
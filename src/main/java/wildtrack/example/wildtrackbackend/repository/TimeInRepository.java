@@ -1,9 +1,12 @@
 package wildtrack.example.wildtrackbackend.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import wildtrack.example.wildtrackbackend.entity.LibraryHours;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +22,14 @@ public interface TimeInRepository extends JpaRepository<LibraryHours, Long> {
     // Check if student has an active session
     boolean existsByIdNumberAndTimeOutIsNull(String idNumber);
 
+    // Which of the given students have an active session
+    @Query("SELECT DISTINCT l.idNumber FROM LibraryHours l WHERE l.idNumber IN :idNumbers AND l.timeOut IS NULL")
+    List<String> findActiveIdNumbers(@Param("idNumbers") Collection<String> idNumbers);
+
+    // Every student with an active session
+    @Query("SELECT DISTINCT l.idNumber FROM LibraryHours l WHERE l.timeOut IS NULL")
+    List<String> findAllActiveIdNumbers();
+
     // Get all active sessions
     List<LibraryHours> findByTimeOutIsNull();
 
@@ -1,5 +1,7 @@
 package wildtrack.example.wildtrackbackend.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import wildtrack.example.wildtrackbackend.entity.User;
@@ -17,6 +19,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     List<User> findByRoleAndGrade(String role, String grade); // Fetch users by role and grade
 
+    Page<User> findByRole(String role, Pageable pageable); // One sorted page of users by role
+
+    Page<User> findByRoleAndGrade(String role, String grade, Pageable pageable); // One sorted page by role and grade
+
     List<User> findByQuarter(String quarter); // Fetch teachers by quarter
 
     List<User> findBySubject(String subject); // Fetch teachers by subject
@@ -2,18 +2,42 @@ package wildtrack.example.wildtrackbackend.service;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import wildtrack.example.wildtrackbackend.entity.LibraryHours;
+import jakarta.annotation.PreDestroy;
 import wildtrack.example.wildtrackbackend.repository.LibraryHoursRepository;
 
+/**
+ * Closes every open library session at 5:00 PM Manila time.
+ * The close-out is one UPDATE that stamps time_out and minutes_counted and
+ * flags sessions without a book. Sessions with a book are then credited to
+ * requirement progress in chunks of students, at most creditConcurrency at a
+ * time, each student in their own transaction so one failure does not roll
+ * back the rest and no lock is held across the whole run.
+ * A student whose crediting fails keeps closed, counted sessions without a
+ * requirement, so each run also picks up such sessions from the previous
+ * creditSweepDays days and credits them again.
+ */
 @Service
 public class AutoTimeOutService {
+    private static final Logger logger = Logger.getLogger(AutoTimeOutService.class.getName());
 
     // Define the Philippines timezone (UTC+8)
     private static final ZoneId PHILIPPINES_ZONE = ZoneId.of("Asia/Manila");
@@ -24,39 +48,160 @@ public class AutoTimeOutService {
     @Autowired
     private LibraryRequirementProgressService libraryRequirementProgressService;
 
+    @Autowired
+    private OpenSessionCache openSessionCache;
+
+    @Autowired
+    private OccupancyTracker occupancyTracker;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Students credited before waiting for the chunk to finish
+    @Value("${wildtrack.auto-timeout.credit-chunk-size:100}")
+    private int creditChunkSize;
+
+    // Students credited at once; each holds a pooled connection while it runs
+    @Value("${wildtrack.auto-timeout.credit-concurrency:4}")
+    private int creditConcurrency;
+
+    // Days back to look for counted sessions that were never credited
+    @Value("${wildtrack.auto-timeout.credit-sweep-days:7}")
+    private int creditSweepDays;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Totals since startup and details of the last run
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong sessionsClosedTotal = new AtomicLong();
+    private final AtomicLong sessionsCreditedTotal = new AtomicLong();
+    private final AtomicLong creditFailuresTotal = new AtomicLong();
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
     /**
      * Automatically time out all users at 5:00 PM Manila time
      */
     @Scheduled(cron = "0 0 17 * * *", zone = "Asia/Manila")
-    @Transactional
     public void autoTimeOutAllUsers() {
-        // Find all records where timeOut is null
-        List<LibraryHours> openSessions = libraryHoursRepository.findByTimeOutIsNull();
-
-        LocalDateTime closeTime = LocalDateTime.now(PHILIPPINES_ZONE);
-
-        for (LibraryHours session : openSessions) {
-            // Set time-out to current time for ALL sessions
-            session.setTimeOut(closeTime);
-
-            // Calculate minutes spent
-            long minutes = java.time.Duration.between(session.getTimeIn(), session.getTimeOut()).toMinutes();
-            session.setMinutesCounted((int) minutes);
-
-            // If this session has a book assigned, mark it as counted
-            // Otherwise, mark it as requiring book assignment
-            if (session.getBookTitle() != null && !session.getBookTitle().trim().isEmpty()) {
-                session.setIsCounted(true);
-
-                // Only update library requirement progress for sessions with books
-                LibraryHours savedRecord = libraryHoursRepository.save(session);
-                libraryRequirementProgressService.recordLibraryTime(savedRecord.getId());
-            } else {
-                // For sessions without books, mark them specially
-                session.setIsCounted(false);
-                session.setRequiresBookAssignment(true); // Add this field to LibraryHours entity
-                libraryHoursRepository.save(session);
+        // Whole seconds, so the crediting query matches the stamped value exactly
+        LocalDateTime closeTime = LocalDateTime.now(PHILIPPINES_ZONE).truncatedTo(ChronoUnit.SECONDS);
+
+        long closeStart = System.nanoTime();
+        Integer closed = transactionTemplate.execute(status -> libraryHoursRepository.closeOpenSessions(closeTime));
+        int sessionsClosed = closed != null ? closed : 0;
+        long closeMillis = (System.nanoTime() - closeStart) / 1_000_000;
+
+        // Every session is closed now
+        openSessionCache.evictAll();
+        occupancyTracker.clear();
+
+        long creditStart = System.nanoTime();
+        Map<String, List<Long>> sessionsByStudent = new LinkedHashMap<>();
+        for (Object[] row : libraryHoursRepository.findSessionsToCredit(closeTime)) {
+            sessionsByStudent.computeIfAbsent((String) row[1], id -> new ArrayList<>()).add((Long) row[0]);
+        }
+
+        // Earlier days only; today's manual time-outs may still be waiting for the outbox
+        int sessionsSwept = 0;
+        if (creditSweepDays > 0) {
+            LocalDateTime today = closeTime.toLocalDate().atStartOfDay();
+            for (Object[] row : libraryHoursRepository.findUncreditedSessions(
+                    today.minusDays(creditSweepDays), today.minusNanos(1))) {
+                sessionsByStudent.computeIfAbsent((String) row[1], id -> new ArrayList<>()).add((Long) row[0]);
+                sessionsSwept++;
+            }
+        }
+        long[] credited = creditStudents(sessionsByStudent);
+        long creditMillis = (System.nanoTime() - creditStart) / 1_000_000;
+
+        runs.incrementAndGet();
+        sessionsClosedTotal.addAndGet(sessionsClosed);
+        sessionsCreditedTotal.addAndGet(credited[0]);
+        creditFailuresTotal.addAndGet(credited[1]);
+
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("closeTime", closeTime);
+        run.put("sessionsClosed", sessionsClosed);
+        run.put("closeMillis", closeMillis);
+        run.put("studentsToCredit", sessionsByStudent.size());
+        run.put("sessionsSwept", sessionsSwept);
+        run.put("sessionsCredited", credited[0]);
+        run.put("studentsFailed", credited[1]);
+        run.put("creditMillis", creditMillis);
+        lastRun = run;
+
+        logger.info("Auto time-out closed " + sessionsClosed + " session(s) in " + closeMillis + " ms and credited "
+                + credited[0] + " session(s) for " + sessionsByStudent.size() + " student(s) in " + creditMillis
+                + " ms (" + credited[1] + " student(s) failed)");
+    }
+
+    /**
+     * Close-out totals since startup and details of the last run
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("runs", runs.get());
+        metrics.put("sessionsClosed", sessionsClosedTotal.get());
+        metrics.put("sessionsCredited", sessionsCreditedTotal.get());
+        metrics.put("creditFailures", creditFailuresTotal.get());
+        metrics.put("creditChunkSize", creditChunkSize);
+        metrics.put("creditConcurrency", creditConcurrency);
+        metrics.put("creditSweepDays", creditSweepDays);
+        metrics.put("lastRun", lastRun);
+        return metrics;
+    }
+
+    // Credit each student's sessions in their own transaction.
+    // Returns {sessions credited, students failed}.
+    private long[] creditStudents(Map<String, List<Long>> sessionsByStudent) {
+        AtomicLong creditedSessions = new AtomicLong();
+        AtomicLong failedStudents = new AtomicLong();
+        Semaphore permits = new Semaphore(Math.max(1, creditConcurrency));
+        List<Map.Entry<String, List<Long>>> students = new ArrayList<>(sessionsByStudent.entrySet());
+        int chunkSize = Math.max(1, creditChunkSize);
+
+        for (int from = 0; from < students.size(); from += chunkSize) {
+            List<Future<?>> running = new ArrayList<>();
+            for (Map.Entry<String, List<Long>> student : students.subList(from,
+                    Math.min(from + chunkSize, students.size()))) {
+                permits.acquireUninterruptibly();
+                try {
+                    running.add(executor.submit(() -> {
+                        try {
+                            transactionTemplate.executeWithoutResult(status -> student.getValue()
+                                    .forEach(libraryRequirementProgressService::recordLibraryTime));
+                            creditedSessions.addAndGet(student.getValue().size());
+                        } catch (Exception e) {
+                            failedStudents.incrementAndGet();
+                            logger.warning("Could not credit auto time-out sessions " + student.getValue()
+                                    + " for student " + student.getKey() + ": " + e.getMessage());
+                        } finally {
+                            permits.release();
+                        }
+                    }));
+                } catch (RuntimeException e) {
+                    permits.release();
+                    throw e;
+                }
+            }
+
+            // Finish this chunk before starting the next
+            for (Future<?> future : running) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return new long[] { creditedSessions.get(), failedStudents.get() };
+                } catch (ExecutionException e) {
+                    logger.warning("Auto time-out crediting crashed: " + e.getCause());
+                }
             }
         }
+        return new long[] { creditedSessions.get(), failedStudents.get() };
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,185 @@
+package wildtrack.example.wildtrackbackend.service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import wildtrack.example.wildtrackbackend.entity.LibraryRequirementProgress;
+import wildtrack.example.wildtrackbackend.entity.SequenceCounter;
+import wildtrack.example.wildtrackbackend.repository.LibraryHoursRepository;
+import wildtrack.example.wildtrackbackend.repository.LibraryRequirementProgressRepository;
+import wildtrack.example.wildtrackbackend.repository.SequenceCounterRepository;
+
+/**
+ * Moves the legacy contributing_library_hours_ids lists into
+ * library_hours.requirement_id.
+ * Progress rows are read in id order, chunkSize at a time, as plain id/list
+ * pairs. Each chunk runs in its own transaction with one UPDATE per
+ * requirement and saves the last processed id as a checkpoint in the same
+ * commit, so memory and lock time stay bounded and an interrupted run resumes
+ * where it stopped.
+ */
+@Service
+public class ContributingSessionMigration {
+    private static final Logger logger = Logger.getLogger(ContributingSessionMigration.class.getName());
+
+    // Checkpoint row in sequence_counters; next_value holds the last migrated progress id
+    private static final String CHECKPOINT_NAME = "migration.contributing_sessions";
+
+    @Autowired
+    private LibraryRequirementProgressRepository progressRepository;
+
+    @Autowired
+    private LibraryHoursRepository libraryHoursRepository;
+
+    @Autowired
+    private SequenceCounterRepository sequenceCounterRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${wildtrack.migration.contributing-sessions.chunk-size:500}")
+    private int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // Progress of the current or last run
+    private volatile String state = "IDLE";
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile long totalRequirements;
+    private volatile long requirementsProcessed;
+    private volatile long sessionsLinked;
+    private volatile long chunks;
+    private volatile long lastProgressId;
+    private volatile String error;
+
+    /**
+     * Start the migration on a background thread unless it is already running.
+     * With restart, the checkpoint is cleared and every row is read again;
+     * rows that are already linked are left untouched either way.
+     */
+    public Map<String, Object> start(boolean restart) {
+        if (!running.compareAndSet(false, true)) {
+            return getStatus();
+        }
+
+        try {
+            if (restart) {
+                transactionTemplate.executeWithoutResult(status -> saveCheckpoint(0L));
+            }
+            resetStatus();
+            Thread.ofVirtual().name("contributing-session-migration").start(this::runChunks);
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        return getStatus();
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", state);
+        status.put("startedAt", startedAt);
+        status.put("finishedAt", finishedAt);
+        status.put("totalRequirements", totalRequirements);
+        status.put("requirementsProcessed", requirementsProcessed);
+        status.put("sessionsLinked", sessionsLinked);
+        status.put("chunks", chunks);
+        status.put("checkpoint", lastProgressId);
+        status.put("chunkSize", chunkSize);
+        if (error != null) {
+            status.put("error", error);
+        }
+        return status;
+    }
+
+    private void resetStatus() {
+        state = "RUNNING";
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+        requirementsProcessed = 0;
+        sessionsLinked = 0;
+        chunks = 0;
+        error = null;
+        lastProgressId = readCheckpoint();
+        totalRequirements = progressRepository.countLegacySessionIdsAfter(lastProgressId);
+    }
+
+    private void runChunks() {
+        logger.info("Starting contributing session migration after progress id " + lastProgressId
+                + " (" + totalRequirements + " requirement(s) to process)");
+        try {
+            while (true) {
+                long[] chunk = transactionTemplate.execute(status -> migrateChunk(lastProgressId));
+                if (chunk == null) {
+                    break;
+                }
+
+                // The chunk and its checkpoint are committed
+                requirementsProcessed += chunk[0];
+                sessionsLinked += chunk[1];
+                lastProgressId = chunk[2];
+                chunks++;
+                logger.info("Contributing session migration: " + requirementsProcessed + "/" + totalRequirements
+                        + " requirement(s), checkpoint " + lastProgressId);
+            }
+            state = "COMPLETED";
+            logger.info("Contributing session migration completed: " + requirementsProcessed
+                    + " requirement(s), " + sessionsLinked + " session(s) linked");
+        } catch (Exception e) {
+            state = "FAILED";
+            error = e.getMessage();
+            logger.severe("Contributing session migration stopped at progress id " + lastProgressId
+                    + ": " + e.getMessage());
+        } finally {
+            finishedAt = LocalDateTime.now();
+            running.set(false);
+        }
+    }
+
+    // Migrate one chunk and advance the checkpoint.
+    // Returns {requirements, sessions linked, last progress id}, or null when nothing is left.
+    private long[] migrateChunk(long afterId) {
+        List<Object[]> rows = progressRepository.findLegacySessionIdsAfter(afterId,
+                PageRequest.of(0, Math.max(1, chunkSize)));
+        if (rows.isEmpty()) {
+            return null;
+        }
+
+        long linked = 0;
+        long lastId = afterId;
+        for (Object[] row : rows) {
+            Long progressId = (Long) row[0];
+            List<Long> sessionIds = LibraryRequirementProgress.parseContributingLibraryHoursIds((String) row[1]);
+            if (!sessionIds.isEmpty()) {
+                linked += libraryHoursRepository.linkToRequirement(progressId, sessionIds);
+            }
+            lastId = progressId;
+        }
+        saveCheckpoint(lastId);
+        return new long[] { rows.size(), linked, lastId };
+    }
+
+    private long readCheckpoint() {
+        return sequenceCounterRepository.findById(CHECKPOINT_NAME)
+                .map(SequenceCounter::getNextValue)
+                .orElse(0L);
+    }
+
+    private void saveCheckpoint(long progressId) {
+        SequenceCounter checkpoint = sequenceCounterRepository.findById(CHECKPOINT_NAME)
+                .orElseGet(() -> new SequenceCounter(CHECKPOINT_NAME, 0L));
+        checkpoint.setNextValue(progressId);
+        sequenceCounterRepository.save(checkpoint);
+    }
+}
@@ -0,0 +1,220 @@
+package wildtrack.example.wildtrackbackend.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import wildtrack.example.wildtrackbackend.entity.DailyLibraryParticipation;
+import wildtrack.example.wildtrackbackend.entity.DailyLibraryStats;
+import wildtrack.example.wildtrackbackend.entity.LibraryHours;
+import wildtrack.example.wildtrackbackend.entity.LibraryRequirementProgress;
+import wildtrack.example.wildtrackbackend.repository.DailyLibraryParticipationRepository;
+import wildtrack.example.wildtrackbackend.repository.DailyLibraryStatsRepository;
+import wildtrack.example.wildtrackbackend.repository.LibraryHoursRepository;
+
+/**
+ * Maintains the daily_library_stats rollup used by the dashboard.
+ * Credits are added incrementally in the same transaction that credits a
+ * session to a requirement; rebuild() recomputes whole days from library_hours.
+ * Distinct students per day and grade/section are kept in
+ * daily_library_participation, so a student credited to several subjects or
+ * quarters on the same day is counted once. Whether a credit adds a
+ * participant is decided from the student's other credited sessions that day.
+ */
+@Service
+public class DailyLibraryStatsService {
+    private static final Logger logger = Logger.getLogger(DailyLibraryStatsService.class.getName());
+
+    // Define the Philippines timezone (UTC+8)
+    private static final ZoneId PHILIPPINES_ZONE = ZoneId.of("Asia/Manila");
+
+    @Autowired
+    private DailyLibraryStatsRepository statsRepository;
+
+    @Autowired
+    private DailyLibraryParticipationRepository participationRepository;
+
+    @Autowired
+    private LibraryHoursRepository libraryHoursRepository;
+
+    @Autowired
+    private StudentDirectory studentDirectory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Add one credited session to the rollup rows for its day
+     */
+    @Transactional
+    public void recordCredit(LibraryHours session, LibraryRequirementProgress progress,
+            int minutes, boolean newlyTouched, boolean justCompleted) {
+        String studentId = session.getIdNumber();
+        LocalDate statDate = session.getTimeOut().toLocalDate();
+        LocalDateTime startTime = statDate.atStartOfDay();
+        LocalDateTime endTime = statDate.plusDays(1).atStartOfDay().minusNanos(1);
+
+        // Grade and section from memory; this runs on every time-out
+        StudentDirectory.StudentEntry student = studentDirectory.findByIdNumber(studentId).orElse(null);
+        String gradeLevel = keyValue(student != null ? student.getGrade() : progress.getGradeLevel());
+        String section = keyValue(student != null ? student.getSection() : null);
+        String subject = keyValue(progress.getSubject());
+        String quarter = keyValue(progress.getQuarter());
+
+        // The student's first credit of the day adds a participant to the day, and
+        // the first one for this subject and quarter adds one to the key
+        if (!libraryHoursRepository.existsOtherCreditBetween(studentId, session.getId(), startTime, endTime)) {
+            participationRepository.increment(statDate, gradeLevel, section, 1);
+        }
+        boolean newParticipant = !libraryHoursRepository.existsOtherCreditForKeyBetween(studentId,
+                session.getId(), progress.getSubject(), progress.getQuarter(), startTime, endTime);
+
+        statsRepository.increment(
+                statDate,
+                gradeLevel,
+                section,
+                subject,
+                quarter,
+                newParticipant ? 1 : 0,
+                minutes,
+                newlyTouched ? 1 : 0,
+                justCompleted ? 1 : 0);
+    }
+
+    /**
+     * Daily totals for the dashboard, read from the rollup tables.
+     * Participants are distinct students; with only one of subject and quarter
+     * given they are null, since neither table holds that count.
+     */
+    public List<Map<String, Object>> getDailySummary(LocalDate startDate, LocalDate endDate,
+            String gradeLevel, String section, String subject, String quarter) {
+        gradeLevel = emptyToNull(gradeLevel);
+        section = emptyToNull(section);
+        subject = emptyToNull(subject);
+        quarter = emptyToNull(quarter);
+
+        // Without subject and quarter, one row per grade and section holds the day's
+        // distinct students; with both, the key rows do
+        boolean byDay = subject == null && quarter == null;
+        boolean byKey = subject != null && quarter != null;
+        Map<Object, Long> participantsByDay = new HashMap<>();
+        if (byDay) {
+            for (Object[] row : participationRepository.sumByDay(startDate, endDate, gradeLevel, section)) {
+                participantsByDay.put(row[0], ((Number) row[1]).longValue());
+            }
+        }
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Object[] row : statsRepository.sumByDay(startDate, endDate, gradeLevel, section, subject, quarter)) {
+            Map<String, Object> day = new LinkedHashMap<>();
+            day.put("date", row[0]);
+            if (byDay) {
+                day.put("participants", participantsByDay.getOrDefault(row[0], 0L));
+            } else {
+                day.put("participants", byKey ? ((Number) row[4]).longValue() : null);
+            }
+            day.put("minutesRendered", ((Number) row[1]).longValue());
+            day.put("requirementsTouched", ((Number) row[2]).longValue());
+            day.put("requirementsCompleted", ((Number) row[3]).longValue());
+            result.add(day);
+        }
+        return result;
+    }
+
+    /**
+     * Rebuild the rollup for every day in the range from library_hours.
+     * Each day is replaced in its own transaction so memory and lock time stay
+     * bounded no matter how long the range is. Returns the number of rows written.
+     * Completions come from the progress record's completion day; records
+     * completed before completed_on existed are not counted. Sessions are grouped
+     * under the student's current grade and section, so days before a grade or
+     * section change move to the new one when rebuilt.
+     */
+    public int rebuild(LocalDate startDate, LocalDate endDate) {
+        logger.info("Rebuilding daily library stats from " + startDate + " to " + endDate);
+
+        int rowsWritten = 0;
+        LocalDate day = startDate;
+        while (!day.isAfter(endDate)) {
+            final LocalDate statDate = day;
+            Integer written = transactionTemplate.execute(status -> rebuildDay(statDate));
+            rowsWritten += written != null ? written : 0;
+            day = day.plusDays(1);
+        }
+
+        logger.info("Rebuilt daily library stats: " + rowsWritten + " row(s) written");
+        return rowsWritten;
+    }
+
+    /**
+     * Recompute yesterday's rollup every night so it matches the source rows
+     */
+    @Scheduled(cron = "0 30 0 * * *", zone = "Asia/Manila")
+    public void rebuildYesterday() {
+        LocalDate yesterday = LocalDate.now(PHILIPPINES_ZONE).minusDays(1);
+        rebuild(yesterday, yesterday);
+    }
+
+    private int rebuildDay(LocalDate statDate) {
+        statsRepository.deleteByStatDate(statDate);
+        participationRepository.deleteByStatDate(statDate);
+
+        LocalDateTime startTime = statDate.atStartOfDay();
+        LocalDateTime endTime = statDate.plusDays(1).atStartOfDay().minusNanos(1);
+        List<Object[]> rows = libraryHoursRepository.aggregateCreditedTimeByKey(statDate, startTime, endTime);
+
+        // NULL and "" collapse to the same key, so merge rows that share one
+        Map<String, DailyLibraryStats> statsByKey = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            String gradeLevel = keyValue((String) row[0]);
+            String section = keyValue((String) row[1]);
+            String subject = keyValue((String) row[2]);
+            String quarter = keyValue((String) row[3]);
+
+            DailyLibraryStats dayStats = statsByKey.computeIfAbsent(
+                    String.join("|", gradeLevel, section, subject, quarter),
+                    key -> new DailyLibraryStats(statDate, gradeLevel, section, subject, quarter));
+            dayStats.setParticipants(dayStats.getParticipants() + ((Number) row[4]).intValue());
+            dayStats.setMinutesRendered(dayStats.getMinutesRendered()
+                    + (row[5] != null ? ((Number) row[5]).longValue() : 0L));
+            dayStats.setRequirementsTouched(dayStats.getRequirementsTouched() + ((Number) row[6]).intValue());
+            dayStats.setRequirementsCompleted(dayStats.getRequirementsCompleted() + ((Number) row[7]).intValue());
+        }
+
+        Map<String, DailyLibraryParticipation> participationByKey = new LinkedHashMap<>();
+        for (Object[] row : libraryHoursRepository.countCreditedStudentsBySection(startTime, endTime)) {
+            String gradeLevel = keyValue((String) row[0]);
+            String section = keyValue((String) row[1]);
+
+            DailyLibraryParticipation participation = participationByKey.computeIfAbsent(
+                    gradeLevel + "|" + section,
+                    key -> new DailyLibraryParticipation(statDate, gradeLevel, section));
+            participation.setParticipants(participation.getParticipants() + ((Number) row[2]).intValue());
+        }
+
+        statsRepository.saveAll(statsByKey.values());
+        participationRepository.saveAll(participationByKey.values());
+        return statsByKey.size();
+    }
+
+    // Key columns are NOT NULL so the unique key also covers missing values
+    private String keyValue(String value) {
+        return value != null ? value : "";
+    }
+
+    private String emptyToNull(String value) {
+        return (value == null || value.isEmpty()) ? null : value;
+    }
+}
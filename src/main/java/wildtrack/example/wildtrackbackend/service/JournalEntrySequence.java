@@ -0,0 +1,94 @@
+package wildtrack.example.wildtrackbackend.service;
+
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import wildtrack.example.wildtrackbackend.entity.SequenceCounter;
+import wildtrack.example.wildtrackbackend.repository.JournalRepository;
+import wildtrack.example.wildtrackbackend.repository.SequenceCounterRepository;
+
+/**
+ * Allocates journal entry numbers from the "journal_entry_no" row of
+ * sequence_counters. Numbers are reserved in blocks under a row lock in their
+ * own short transaction, so allocation is O(1) and unique across concurrent
+ * requests and app instances. The counter is seeded from the current highest
+ * entry number the first time it is used.
+ */
+@Component
+public class JournalEntrySequence {
+    private static final Logger logger = Logger.getLogger(JournalEntrySequence.class.getName());
+
+    private static final String SEQUENCE_NAME = "journal_entry_no";
+
+    @Autowired
+    private SequenceCounterRepository sequenceCounterRepository;
+
+    @Autowired
+    private JournalRepository journalRepository;
+
+    // Numbers reserved per database round trip; unused numbers in a block are
+    // skipped if the instance restarts, so 1 keeps the numbering gapless
+    @Value("${wildtrack.journal.entry-sequence.block-size:1}")
+    private int blockSize;
+
+    private final TransactionTemplate requiresNew;
+
+    // Reserved range [next, limit) held by this instance
+    private long next;
+    private long limit;
+
+    public JournalEntrySequence(PlatformTransactionManager transactionManager) {
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Next journal entry number
+     */
+    public synchronized String nextEntryNumber() {
+        if (next >= limit) {
+            reserveBlock();
+        }
+        return String.valueOf(next++);
+    }
+
+    private void reserveBlock() {
+        int size = Math.max(1, blockSize);
+        Long start;
+        try {
+            start = requiresNew.execute(status -> reserve(size));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the counter row first; lock it and retry
+            start = requiresNew.execute(status -> reserve(size));
+        }
+        if (start == null) {
+            throw new RuntimeException("Failed to allocate journal entry number");
+        }
+        next = start;
+        limit = start + size;
+    }
+
+    private Long reserve(int size) {
+        SequenceCounter counter = sequenceCounterRepository.findByNameForUpdate(SEQUENCE_NAME)
+                .orElse(null);
+
+        if (counter == null) {
+            long seed = journalRepository.findMaxEntryNumber().orElse(0) + 1L;
+            logger.info("Seeding journal entry sequence at " + seed);
+            sequenceCounterRepository.saveAndFlush(new SequenceCounter(SEQUENCE_NAME, seed + size));
+            return seed;
+        }
+
+        long start = counter.getNextValue();
+        counter.setNextValue(start + size);
+        sequenceCounterRepository.save(counter);
+        return start;
+    }
+}
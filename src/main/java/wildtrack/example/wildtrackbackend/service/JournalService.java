@@ -18,7 +18,6 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,6 +32,9 @@ public class JournalService {
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private JournalEntrySequence journalEntrySequence;
+
     /**
      * Get all journals for a specific user
      */
@@ -414,23 +416,9 @@ public class JournalService {
 
     /**
      * Generate the next sequential entry number
-     * This finds the highest entry number in the database and increments it by 1
+     * Numbers come from the journal entry sequence, not from scanning journals
      */
     private String generateNextEntryNumber() {
-        // Get the journal with the highest entry number
-        Optional<Integer> maxEntryNo = journalRepository.findAll().stream()
-                .map(journal -> {
-                    try {
-                        return Integer.parseInt(journal.getEntryNo());
-                    } catch (NumberFormatException e) {
-                        return 0; // If not a valid number, treat as 0
-                    }
-                })
-                .max(Integer::compareTo);
-
-        // If there are no journals yet or no valid entry numbers, start with 1
-        int nextEntryNo = maxEntryNo.orElse(0) + 1;
-
-        return String.valueOf(nextEntryNo);
+        return journalEntrySequence.nextEntryNumber();
     }
-}
\ No newline at end of file
+}
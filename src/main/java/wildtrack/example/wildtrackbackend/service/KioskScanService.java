@@ -0,0 +1,328 @@
+package wildtrack.example.wildtrackbackend.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import wildtrack.example.wildtrackbackend.dto.KioskScanBatch;
+import wildtrack.example.wildtrackbackend.dto.KioskScanEvent;
+import wildtrack.example.wildtrackbackend.entity.KioskScan;
+import wildtrack.example.wildtrackbackend.entity.LibraryHours;
+import wildtrack.example.wildtrackbackend.repository.KioskScanRepository;
+import wildtrack.example.wildtrackbackend.repository.UserRepository;
+
+/**
+ * Applies batches of kiosk scans through the time-in and time-out services.
+ * Every scan carries a client idempotency key: the key is claimed with one
+ * insert before the scan is applied and the outcome is stored with it, so a
+ * replayed key (in the same batch, a later batch or on another node) gets the
+ * first outcome back instead of a second time-in or time-out. A key still
+ * PROCESSING is answered with a retryable ERROR while its claim is fresh; once
+ * the claim is older than the lease (the node applying it died) the next retry
+ * takes it over and applies the scan.
+ * Scans for the same student run in batch order; different students run in
+ * parallel on virtual threads, at most maxConcurrency at a time.
+ */
+@Service
+public class KioskScanService {
+    private static final Logger logger = Logger.getLogger(KioskScanService.class.getName());
+
+    // Define the Philippines timezone (UTC+8)
+    private static final ZoneId PHILIPPINES_ZONE = ZoneId.of("Asia/Manila");
+
+    private static final Set<String> SCAN_TYPES = Set.of(KioskScan.TYPE_TIME_IN, KioskScan.TYPE_TIME_OUT);
+
+    // Result statuses besides the stored ACCEPTED and REJECTED
+    public static final String RESULT_INVALID = "INVALID";
+    public static final String RESULT_ERROR = "ERROR";
+
+    @Autowired
+    private KioskScanRepository kioskScanRepository;
+
+    @Autowired
+    private TimeInService timeInService;
+
+    @Autowired
+    private TimeOutService timeOutService;
+
+    @Autowired
+    private StudentDirectory studentDirectory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${wildtrack.kiosk.max-batch-size:500}")
+    private int maxBatchSize;
+
+    @Value("${wildtrack.kiosk.max-concurrency:4}")
+    private int maxConcurrency;
+
+    // How far ahead of the server clock a kiosk timestamp may be
+    @Value("${wildtrack.kiosk.max-clock-skew-seconds:120}")
+    private long maxClockSkewSeconds;
+
+    // How long a PROCESSING claim is left to the request that made it
+    @Value("${wildtrack.kiosk.processing-lease-seconds:30}")
+    private long processingLeaseSeconds;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Apply a batch and return one result per event, in the order received
+     */
+    public Map<String, Object> ingest(KioskScanBatch batch) {
+        List<KioskScanEvent> events = batch.getEvents() != null ? batch.getEvents() : List.of();
+        if (events.size() > maxBatchSize) {
+            throw new IllegalArgumentException("A batch may hold at most " + maxBatchSize + " scans");
+        }
+
+        LocalDateTime receivedAt = LocalDateTime.now(PHILIPPINES_ZONE);
+        // Each slot is written by exactly one task
+        List<Map<String, Object>> results = new ArrayList<>(Collections.nCopies(events.size(), null));
+
+        // Keys seen before, in one query
+        List<String> keys = new ArrayList<>();
+        for (KioskScanEvent event : events) {
+            if (event != null && event.getIdempotencyKey() != null) {
+                keys.add(event.getIdempotencyKey());
+            }
+        }
+        Map<String, KioskScan> existing = new HashMap<>();
+        if (!keys.isEmpty()) {
+            for (KioskScan scan : kioskScanRepository.findByIdempotencyKeyIn(keys)) {
+                existing.put(scan.getIdempotencyKey(), scan);
+            }
+        }
+
+        // Validate, answer replays and group the new scans by student
+        Map<String, Integer> firstIndexByKey = new HashMap<>();
+        Map<Integer, Integer> repeatedInBatch = new LinkedHashMap<>();
+        Map<String, List<Integer>> indexesByStudent = new LinkedHashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            KioskScanEvent event = events.get(i);
+            String problem = validate(event);
+            if (problem != null) {
+                results.set(i, invalidResult(event, problem));
+                continue;
+            }
+
+            // PROCESSING keys go through apply(), which decides whether to take them over
+            KioskScan previous = existing.get(event.getIdempotencyKey());
+            if (previous != null && !KioskScan.STATUS_PROCESSING.equals(previous.getStatus())) {
+                results.set(i, result(previous, true));
+                continue;
+            }
+
+            Integer first = firstIndexByKey.putIfAbsent(event.getIdempotencyKey(), i);
+            if (first != null) {
+                repeatedInBatch.put(i, first);
+                continue;
+            }
+            indexesByStudent.computeIfAbsent(event.getIdNumber(), id -> new ArrayList<>()).add(i);
+        }
+
+        // One task per student keeps each student's scans in order
+        Semaphore permits = new Semaphore(Math.max(1, maxConcurrency));
+        List<Future<?>> running = new ArrayList<>();
+        for (List<Integer> indexes : indexesByStudent.values()) {
+            permits.acquireUninterruptibly();
+            try {
+                running.add(executor.submit(() -> {
+                    try {
+                        for (int index : indexes) {
+                            results.set(index, apply(batch.getKioskId(), events.get(index), receivedAt));
+                        }
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+        for (Future<?> future : running) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while applying kiosk scans");
+            } catch (ExecutionException e) {
+                logger.warning("Kiosk scan task crashed: " + e.getCause());
+            }
+        }
+
+        // Scans left behind by a crashed task
+        for (List<Integer> indexes : indexesByStudent.values()) {
+            for (int index : indexes) {
+                if (results.get(index) == null) {
+                    results.set(index, errorResult(events.get(index)));
+                }
+            }
+        }
+
+        // A key repeated within the batch gets the first occurrence's outcome
+        repeatedInBatch.forEach((index, first) -> {
+            Map<String, Object> repeated = new LinkedHashMap<>(results.get(first));
+            repeated.put("duplicate", true);
+            results.set(index, repeated);
+        });
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("kioskId", batch.getKioskId());
+        response.put("received", events.size());
+        response.put("accepted", countNew(results, KioskScan.STATUS_ACCEPTED));
+        response.put("rejected", countNew(results, KioskScan.STATUS_REJECTED));
+        response.put("duplicates", results.stream().filter(r -> Boolean.TRUE.equals(r.get("duplicate"))).count());
+        response.put("results", results);
+        return response;
+    }
+
+    private Map<String, Object> apply(String kioskId, KioskScanEvent event, LocalDateTime receivedAt) {
+        LocalDateTime scannedAt = event.getScannedAt() != null ? event.getScannedAt() : receivedAt;
+        String type = event.getType().toUpperCase();
+
+        // Claim the key; if another request got there first, report its outcome
+        KioskScan scan;
+        try {
+            scan = kioskScanRepository.save(new KioskScan(event.getIdempotencyKey(), kioskId,
+                    event.getIdNumber(), type, event.getSubject(), scannedAt, receivedAt));
+        } catch (DataIntegrityViolationException e) {
+            KioskScan previous = kioskScanRepository.findByIdempotencyKey(event.getIdempotencyKey()).orElse(null);
+            if (previous == null) {
+                return errorResult(event);
+            }
+            if (!KioskScan.STATUS_PROCESSING.equals(previous.getStatus())) {
+                return result(previous, true);
+            }
+
+            // Still being applied, unless the claim outlived its lease
+            LocalDateTime now = LocalDateTime.now(PHILIPPINES_ZONE);
+            Integer reclaimed = transactionTemplate.execute(status -> kioskScanRepository
+                    .reclaim(previous.getId(), now, now.minusSeconds(processingLeaseSeconds)));
+            if (reclaimed == null || reclaimed == 0) {
+                return errorResult(event);
+            }
+            logger.warning("Taking over stale kiosk scan claim " + event.getIdempotencyKey());
+            scan = previous;
+            scan.setReceivedAt(now);
+        }
+
+        try {
+            if (scannedAt.isAfter(receivedAt.plusSeconds(maxClockSkewSeconds))) {
+                throw new RuntimeException("Scan time is ahead of the server clock.");
+            }
+            if (scannedAt.toLocalDate().isBefore(receivedAt.toLocalDate())) {
+                throw new RuntimeException("Scans from an earlier day can no longer be recorded.");
+            }
+            if (studentDirectory.findByIdNumber(event.getIdNumber()).isEmpty()
+                    && !userRepository.existsByIdNumber(event.getIdNumber())) {
+                throw new RuntimeException("Student not found.");
+            }
+
+            LibraryHours hours = KioskScan.TYPE_TIME_IN.equals(type)
+                    ? timeInService.recordTimeIn(event.getIdNumber(), scannedAt)
+                    : timeOutService.recordTimeOut(event.getIdNumber(), event.getSubject(), scannedAt);
+            scan.setStatus(KioskScan.STATUS_ACCEPTED);
+            scan.setLibraryHoursId(hours.getId());
+            scan.setMessage(KioskScan.TYPE_TIME_IN.equals(type)
+                    ? "Time-in recorded successfully."
+                    : "Time-out recorded successfully.");
+        } catch (DataAccessException e) {
+            // Not the scan's fault; release the key so the kiosk can send it again
+            logger.warning("Could not apply kiosk scan " + event.getIdempotencyKey() + ": " + e.getMessage());
+            kioskScanRepository.delete(scan);
+            return errorResult(event);
+        } catch (RuntimeException e) {
+            scan.setStatus(KioskScan.STATUS_REJECTED);
+            String message = String.valueOf(e.getMessage());
+            scan.setMessage(message.length() > 1000 ? message.substring(0, 1000) : message);
+        }
+        return result(kioskScanRepository.save(scan), false);
+    }
+
+    // Why an event cannot be applied, or null when it is well formed
+    private String validate(KioskScanEvent event) {
+        if (event == null) {
+            return "Missing scan";
+        }
+        if (event.getIdempotencyKey() == null || event.getIdempotencyKey().isBlank()) {
+            return "idempotencyKey is required";
+        }
+        if (event.getIdempotencyKey().length() > 128) {
+            return "idempotencyKey may be at most 128 characters";
+        }
+        if (event.getIdNumber() == null || event.getIdNumber().isBlank()) {
+            return "idNumber is required";
+        }
+        if (event.getType() == null || !SCAN_TYPES.contains(event.getType().toUpperCase())) {
+            return "type must be one of " + SCAN_TYPES;
+        }
+        return null;
+    }
+
+    private Map<String, Object> result(KioskScan scan, boolean duplicate) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("idempotencyKey", scan.getIdempotencyKey());
+        result.put("idNumber", scan.getIdNumber());
+        result.put("type", scan.getScanType());
+        result.put("scannedAt", scan.getScannedAt());
+        result.put("status", scan.getStatus());
+        result.put("message", scan.getMessage());
+        result.put("libraryHoursId", scan.getLibraryHoursId());
+        result.put("duplicate", duplicate);
+        return result;
+    }
+
+    private Map<String, Object> invalidResult(KioskScanEvent event, String message) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("idempotencyKey", event != null ? event.getIdempotencyKey() : null);
+        result.put("idNumber", event != null ? event.getIdNumber() : null);
+        result.put("type", event != null ? event.getType() : null);
+        result.put("status", RESULT_INVALID);
+        result.put("message", message);
+        result.put("duplicate", false);
+        return result;
+    }
+
+    // The scan was not recorded and may be sent again with the same key
+    private Map<String, Object> errorResult(KioskScanEvent event) {
+        Map<String, Object> result = invalidResult(event, "Could not record the scan; please retry");
+        result.put("status", RESULT_ERROR);
+        return result;
+    }
+
+    private long countNew(List<Map<String, Object>> results, String status) {
+        return results.stream()
+                .filter(r -> status.equals(r.get("status")) && !Boolean.TRUE.equals(r.get("duplicate")))
+                .count();
+    }
+}
@@ -37,6 +37,12 @@ public class LibraryHoursService {
     @Autowired
     private LibraryRequirementProgressService libraryRequirementProgressService;
 
+    @Autowired
+    private OpenSessionCache openSessionCache;
+
+    @Autowired
+    private OccupancyTracker occupancyTracker;
+
     public List<Map<String, Object>> getTotalMinutesSpentByUser(
             String idNumber, String dateFrom, String dateTo, String academicYear) {
 
@@ -148,25 +154,6 @@ public class LibraryHoursService {
         return summaries;
     }
 
-    // Record a time-in entry
-    public void recordTimeIn(String idNumber) {
-        // Check for an open time-in record
-        LibraryHours openTimeIn = libraryHoursRepository.findLatestByIdNumber(idNumber)
-                .filter(libraryHours -> libraryHours.getTimeOut() == null)
-                .orElse(null);
-
-        if (openTimeIn != null) {
-            throw new RuntimeException(
-                    "You already have a time-in recorded without a time-out. Please record a time-out before clocking in again.");
-        }
-
-        // Create a new time-in record
-        LibraryHours libraryHours = new LibraryHours();
-        libraryHours.setIdNumber(idNumber);
-        libraryHours.setTimeIn(LocalDateTime.now());
-        libraryHoursRepository.save(libraryHours);
-    }
-
     // Record a time-out entry with automatic requirement crediting
     @Transactional
     public void recordTimeOut(String idNumber) {
@@ -193,6 +180,8 @@ public class LibraryHoursService {
 
         // Save the record
         LibraryHours savedHours = libraryHoursRepository.save(libraryHours);
+        openSessionCache.evict(idNumber);
+        occupancyTracker.studentLeft(idNumber);
 
         // Automatically call the requirement progress service to allocate these minutes
         // This will handle crediting the minutes to the appropriate requirement
@@ -266,7 +255,14 @@ public class LibraryHoursService {
 
     // Save or update a library hours record
     public LibraryHours saveLibraryHours(LibraryHours libraryHours) {
-        return libraryHoursRepository.save(libraryHours);
+        LibraryHours savedHours = libraryHoursRepository.save(libraryHours);
+        openSessionCache.evict(savedHours.getIdNumber());
+        if (savedHours.getTimeOut() == null) {
+            occupancyTracker.studentEntered(savedHours.getIdNumber());
+        } else {
+            occupancyTracker.studentLeft(savedHours.getIdNumber());
+        }
+        return savedHours;
     }
 
     public StudentLibrarySummary updateStudentLibrarySummary(String idNumber, StudentLibrarySummary summaryUpdate) {
@@ -295,6 +291,10 @@ public class LibraryHoursService {
 
         // Save the updated entity
         libraryHoursRepository.save(libraryHours);
+        openSessionCache.evict(idNumber);
+        if (libraryHours.getTimeOut() != null) {
+            occupancyTracker.studentLeft(idNumber);
+        }
 
         // Calculate total minutes and update the DTO
         long completedMinutes = libraryHours.getTimeIn() != null && libraryHours.getTimeOut() != null
@@ -6,6 +6,7 @@ import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -14,9 +15,13 @@ import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import wildtrack.example.wildtrackbackend.dto.ActiveProgressDTO;
 import wildtrack.example.wildtrackbackend.entity.LibraryHours;
 import wildtrack.example.wildtrackbackend.entity.LibraryRequirementProgress;
 import wildtrack.example.wildtrackbackend.entity.SetLibraryHours;
@@ -45,6 +50,18 @@ public class LibraryRequirementProgressService {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private DailyLibraryStatsService dailyLibraryStatsService;
+
+    @Autowired
+    private StudentDirectory studentDirectory;
+
+    @Autowired
+    private OpenSessionCache openSessionCache;
+
+    @Autowired
+    private RequirementCatalog requirementCatalog;
+
     /**
      * Initialize requirements for a student based on when they joined their current
      * grade
@@ -54,14 +71,14 @@ public class LibraryRequirementProgressService {
      * or registration date if the student has always been in this grade level
      */
     @Transactional
-    public void initializeRequirements(String studentId) {
+    public int initializeRequirements(String studentId) {
         logger.info("Initializing requirements for student: " + studentId);
 
         // Get the student
         Optional<User> userOpt = userRepository.findByIdNumber(studentId);
         if (!userOpt.isPresent()) {
             logger.warning("Student not found: " + studentId);
-            return;
+            return 0;
         }
 
         User student = userOpt.get();
@@ -71,40 +88,69 @@ public class LibraryRequirementProgressService {
         LocalDateTime gradeJoinDate = getGradeJoinDate(student);
         logger.info("Using grade join date: " + gradeJoinDate + " for student: " + studentId);
 
-        // Get all APPROVED requirements for this grade level
-        List<SetLibraryHours> allRequirements = requirementRepository.findByGradeLevel(gradeLevel);
+        // Get all APPROVED requirements for this grade level from the catalog
+        RequirementCatalog.GradeRequirements catalog = requirementCatalog.getRequirements(gradeLevel);
+        List<RequirementCatalog.RequirementEntry> allRequirements = catalog.requirements();
 
         // IMPORTANT: Filter requirements to ONLY include those created AFTER the
         // student joined this grade level
-        List<SetLibraryHours> newRequirements = allRequirements.stream()
-                .filter(req -> req.getCreatedAt() != null && req.getCreatedAt().isAfter(gradeJoinDate))
+        List<RequirementCatalog.RequirementEntry> newRequirements = allRequirements.stream()
+                .filter(req -> req.createdAt() != null && req.createdAt().isAfter(gradeJoinDate))
                 .collect(Collectors.toList());
 
         logger.info("Found " + newRequirements.size() + " new requirements for student " + studentId +
                 " out of " + allRequirements.size() + " total requirements for grade " + gradeLevel);
 
-        // For each new requirement, create a progress record if it doesn't exist
-        for (SetLibraryHours requirement : newRequirements) {
-            // Check if progress record already exists
-            Optional<LibraryRequirementProgress> existingProgress = progressRepository
-                    .findByStudentIdAndRequirementId(studentId, requirement.getId());
+        // Requirements the student already has rows for, read once
+        Set<Long> existingRequirementIds = new HashSet<>(progressRepository.findRequirementIdsByStudentId(studentId));
 
-            if (!existingProgress.isPresent()) {
+        // For each new requirement, create a progress record if it doesn't exist
+        int created = 0;
+        for (RequirementCatalog.RequirementEntry requirement : newRequirements) {
+            if (!existingRequirementIds.contains(requirement.id())) {
                 // Create new progress record
                 LibraryRequirementProgress progress = new LibraryRequirementProgress(
                         studentId,
-                        requirement.getId(),
-                        requirement.getSubject(),
-                        requirement.getQuarter().getValue(),
+                        requirement.id(),
+                        requirement.subject(),
+                        requirement.quarter(),
                         gradeLevel,
-                        requirement.getMinutes(),
-                        requirement.getDeadline());
+                        requirement.minutes(),
+                        requirement.deadline());
 
                 progressRepository.save(progress);
+                created++;
                 logger.info("Created progress record for student " + studentId +
-                        " and requirement " + requirement.getId());
+                        " and requirement " + requirement.id());
             }
         }
+
+        // Nothing to check for this student until the grade's catalog changes
+        requirementCatalog.markSynced(studentId, gradeLevel, catalog.version());
+        return created;
+    }
+
+    /**
+     * Make sure the student has progress rows for every requirement of their
+     * grade. Skipped without a query when the student was already synced
+     * against the grade's current catalog version.
+     */
+    @Transactional
+    public void ensureRequirementsCurrent(String studentId) {
+        String gradeLevel = studentDirectory.findByIdNumber(studentId)
+                .map(StudentDirectory.StudentEntry::getGrade)
+                .orElse(null);
+        if (gradeLevel != null && requirementCatalog.isSynced(studentId, gradeLevel)) {
+            return;
+        }
+
+        // Check if student has any requirements, initialize if needed
+        if (progressRepository.countByStudentId(studentId) == 0) {
+            initializeRequirements(studentId);
+        } else {
+            // Also check for new requirements in case all existing ones are completed
+            addNewRequirements(studentId);
+        }
     }
 
     /**
@@ -138,213 +184,105 @@ public class LibraryRequirementProgressService {
     public List<LibraryRequirementProgress> checkForNewRequirements(String studentId) {
         logger.info("Checking for new requirements for student: " + studentId);
 
-        // Get existing requirements
-        List<LibraryRequirementProgress> existingProgress = progressRepository.findByStudentId(studentId);
-
-        // Collect IDs of requirements already assigned to this student
-        Set<Long> existingRequirementIds = existingProgress.stream()
-                .map(LibraryRequirementProgress::getRequirementId)
-                .collect(Collectors.toSet());
+        addNewRequirements(studentId);
 
-        // Initialize new requirements (this will only create ones that don't exist yet)
-        initializeRequirements(studentId);
-
-        // Fetch updated list of requirements (including any newly added ones)
-        List<LibraryRequirementProgress> updatedProgress = progressRepository.findByStudentId(studentId);
+        // Return all requirements including any new ones
+        return progressRepository.findByStudentId(studentId);
+    }
 
-        // Find newly added requirements
-        List<LibraryRequirementProgress> newlyAddedRequirements = updatedProgress.stream()
-                .filter(req -> !existingRequirementIds.contains(req.getRequirementId()))
-                .collect(Collectors.toList());
+    // Create rows for requirements the student is missing and tell them about it
+    private void addNewRequirements(String studentId) {
+        int newlyAdded = initializeRequirements(studentId);
 
-        if (!newlyAddedRequirements.isEmpty()) {
-            logger.info("Found " + newlyAddedRequirements.size() + " new requirements for student " + studentId);
+        if (newlyAdded > 0) {
+            logger.info("Found " + newlyAdded + " new requirements for student " + studentId);
 
             // Create a notification for the student about new requirements
-            if (newlyAddedRequirements.size() > 0) {
-                Optional<User> userOpt = userRepository.findByIdNumber(studentId);
-                if (userOpt.isPresent()) {
-                    String title = "New Reading Requirements";
-                    String message = String.format(
-                            "You have %d new reading requirement(s) assigned to you. Please check your requirements page for details.",
-                            newlyAddedRequirements.size());
-
-                    notificationService.createUserNotification(
-                            userOpt.get().getId(),
-                            title,
-                            message,
-                            "NEW_REQUIREMENTS",
-                            null);
-                }
+            Optional<User> userOpt = userRepository.findByIdNumber(studentId);
+            if (userOpt.isPresent()) {
+                String title = "New Reading Requirements";
+                String message = String.format(
+                        "You have %d new reading requirement(s) assigned to you. Please check your requirements page for details.",
+                        newlyAdded);
+
+                notificationService.createUserNotification(
+                        userOpt.get().getId(),
+                        title,
+                        message,
+                        "NEW_REQUIREMENTS",
+                        null);
             }
         }
-
-        // Return all requirements including any new ones
-        return updatedProgress;
     }
 
     /**
      * Get active progress with timing status
      * This method returns progress with real-time status information based on
-     * current library hours
+     * current library hours. Progress, requirement task, creator and session
+     * counts come from a single query, already sorted by deadline.
      */
-    public List<Map<String, Object>> getActiveProgressWithTimingStatus(String studentId) {
-        // Get all the student's requirements
-        List<LibraryRequirementProgress> progress = progressRepository.findByStudentId(studentId);
-
-        // Check if student is currently timed in
-        Optional<LibraryHours> activeSession = libraryHoursRepository.findLatestByIdNumber(studentId)
-                .filter(lh -> lh.getTimeOut() == null); // No timeout means active session
-
-        // MODIFIED: Sort requirements by deadline (earliest first) instead of quarter
-        progress.sort((a, b) -> {
-            // Handle null deadlines - put them at the end
-            if (a.getDeadline() == null && b.getDeadline() == null) {
-                return 0;
-            } else if (a.getDeadline() == null) {
-                return 1;
-            } else if (b.getDeadline() == null) {
-                return -1;
-            }
-            // Otherwise sort by deadline (earliest first)
-            return a.getDeadline().compareTo(b.getDeadline());
-        });
-
-        // Get the first incomplete requirement by deadline priority
-        // This will be our primary requirement based on priority
-        Optional<LibraryRequirementProgress> highestPriorityIncomplete = progress.stream()
-                .filter(req -> !req.getIsCompleted())
-                .findFirst();
-
-        // Set the active requirement ID to the highest priority one
-        Long activeRequirementId = null;
-        if (highestPriorityIncomplete.isPresent()) {
-            activeRequirementId = highestPriorityIncomplete.get().getId();
+    public List<ActiveProgressDTO> getActiveProgressWithTimingStatus(String studentId) {
+        List<ActiveProgressDTO> progress = new ArrayList<>();
+        for (Object[] row : progressRepository.findActiveProgressRows(studentId)) {
+            progress.add(new ActiveProgressDTO(row));
         }
 
-        // If a student is currently timed in and has a specific subject
-        boolean userIsActive = false;
-        final String activeSubject; // Declare as final for use in lambda expression
-
+        // Check if student is currently timed in
+        Optional<LibraryHours> activeSession = openSessionCache.findOpenSession(studentId);
+        String activeSubject = null;
         if (activeSession.isPresent() && activeSession.get().getSubject() != null
                 && !activeSession.get().getSubject().isEmpty()) {
-            userIsActive = true;
-            activeSubject = activeSession.get().getSubject(); // Assign once, make it effectively final
-
-            // If they have a specific subject selected, find matching requirements
-            // MODIFIED: Get all incomplete requirements for this subject, sorted by
-            // deadline
-            List<LibraryRequirementProgress> matchingSubjectReqs = progress.stream()
-                    .filter(req -> !req.getIsCompleted() &&
-                            activeSubject.equals(req.getSubject()))
-                    .sorted((a, b) -> {
-                        // Sort by deadline (earliest first)
-                        if (a.getDeadline() == null && b.getDeadline() == null) {
-                            return 0;
-                        } else if (a.getDeadline() == null) {
-                            return 1;
-                        } else if (b.getDeadline() == null) {
-                            return -1;
-                        }
-                        return a.getDeadline().compareTo(b.getDeadline());
-                    })
-                    .toList(); // Using toList() instead of collect(Collectors.toList())
-
-            // If there are matching requirements for this subject, use the highest priority
-            // one (earliest deadline)
-            if (!matchingSubjectReqs.isEmpty()) {
-                activeRequirementId = matchingSubjectReqs.get(0).getId();
-            }
-        } else {
-            activeSubject = null; // Initialize with null if no active session
+            activeSubject = activeSession.get().getSubject();
         }
+        boolean userIsActive = activeSubject != null;
 
-        // Convert to response format with additional status information
-        List<Map<String, Object>> result = new ArrayList<>();
-
-        for (LibraryRequirementProgress req : progress) {
-            Map<String, Object> item = new HashMap<>();
-
-            // Copy all properties
-            item.put("id", req.getId());
-            item.put("requirementId", req.getRequirementId());
-            item.put("studentId", req.getStudentId());
-            item.put("subject", req.getSubject());
-            item.put("quarter", req.getQuarter());
-            item.put("gradeLevel", req.getGradeLevel());
-            item.put("requiredMinutes", req.getRequiredMinutes());
-            item.put("minutesRendered", req.getMinutesRendered());
-            item.put("remainingMinutes", req.getRemainingMinutes());
-            item.put("deadline", req.getDeadline());
-            item.put("isCompleted", req.getIsCompleted());
-            item.put("progressPercentage", req.getProgressPercentage());
-
-            // Fetch the original requirement to get task and creator information
-            Optional<SetLibraryHours> libraryHoursOpt = requirementRepository.findById(req.getRequirementId());
-            if (libraryHoursOpt.isPresent()) {
-                SetLibraryHours libraryHours = libraryHoursOpt.get();
-
-                // Set the task field
-                item.put("task", libraryHours.getTask());
-
-                // Get creator information if available
-                if (libraryHours.getCreatedById() != null) {
-                    Optional<User> creatorOpt = userRepository.findById(libraryHours.getCreatedById());
-                    if (creatorOpt.isPresent()) {
-                        User creator = creatorOpt.get();
-                        item.put("creatorName", creator.getFirstName() + " " + creator.getLastName());
-                    } else {
-                        item.put("creatorName", "Unknown Teacher");
-                    }
-                } else {
-                    item.put("creatorName", "Unknown Teacher");
-                }
-            } else {
-                item.put("task", null);
-                item.put("creatorName", "Unknown Teacher");
+        // The active requirement is the earliest-deadline incomplete one, or, while
+        // timed in for a subject, the earliest-deadline incomplete one for that subject
+        Long firstIncompleteId = null;
+        Long firstSubjectIncompleteId = null;
+        for (ActiveProgressDTO req : progress) {
+            if (req.getIsCompleted()) {
+                continue;
             }
+            if (firstIncompleteId == null) {
+                firstIncompleteId = req.getId();
+            }
+            if (userIsActive && firstSubjectIncompleteId == null && activeSubject.equals(req.getSubject())) {
+                firstSubjectIncompleteId = req.getId();
+            }
+        }
+        Long activeRequirementId = firstSubjectIncompleteId != null ? firstSubjectIncompleteId : firstIncompleteId;
 
-            // IMPROVED STATUS LOGIC:
+        LocalDate today = LocalDate.now();
+        for (ActiveProgressDTO req : progress) {
+            boolean isActive = req.getId().equals(activeRequirementId);
+            boolean overdue = req.getDeadline() != null && req.getDeadline().isBefore(today);
             String status;
 
             if (req.getIsCompleted()) {
                 // If requirement is completed, it's always "Completed"
                 status = "Completed";
-            } else if (userIsActive && activeRequirementId != null && req.getId().equals(activeRequirementId)) {
-                // If user is actively timed in and this is the active requirement, it's "In
-                // Progress"
-                // even if it has 0 minutes rendered
+            } else if (userIsActive && isActive) {
+                // Timed in and working on this requirement, even with 0 minutes rendered
                 status = "In Progress";
             } else if (req.getMinutesRendered() <= 0) {
                 // If not active and no minutes rendered, it's "Not Started"
                 status = "Not Started";
-            } else if (activeRequirementId != null && req.getId().equals(activeRequirementId)) {
-                // If this is the highest priority requirement with minutes but user isn't timed
-                // in
-                status = req.getDeadline() != null && req.getDeadline().isBefore(LocalDate.now())
-                        ? "Overdue"
-                        : "In Progress";
-            } else if (req.getDeadline() != null && req.getDeadline().isBefore(LocalDate.now())) {
+            } else if (isActive) {
+                // Highest priority requirement with minutes but user isn't timed in
+                status = overdue ? "Overdue" : "In Progress";
+            } else if (overdue) {
                 // Lower priority requirement with a past deadline
                 status = "Overdue";
-            } else if (req.getMinutesRendered() > 0) {
-                // If this requirement has minutes but isn't active/highest priority
-                status = "Paused";
             } else {
-                // Fallback to entity status
-                status = req.getStatus();
+                // Has minutes but isn't the active/highest priority requirement
+                status = "Paused";
             }
 
-            item.put("status", status);
-
-            // Add count of contributing sessions
-            List<Long> contributingSessions = req.getContributingLibraryHoursIdsList();
-            item.put("contributingSessionsCount", contributingSessions.size());
-
-            result.add(item);
+            req.setStatus(status);
         }
 
-        return result;
+        return progress;
     }
 
     /**
@@ -403,15 +341,8 @@ public class LibraryRequirementProgressService {
             return;
         }
 
-        // Check if student has any requirements, initialize if needed
-        long requirementCount = progressRepository.countByStudentId(studentId);
-        if (requirementCount == 0) {
-            logger.info("Initializing requirements for student before recording time: " + studentId);
-            initializeRequirements(studentId);
-        } else {
-            // Also check for new requirements in case all existing ones are completed
-            checkForNewRequirements(studentId);
-        }
+        // Make sure the student has rows for the grade's current requirements
+        ensureRequirementsCurrent(studentId);
 
         // Find matching requirement progress
         Optional<LibraryRequirementProgress> progressOpt;
@@ -467,13 +398,20 @@ public class LibraryRequirementProgressService {
             LibraryRequirementProgress progress = progressOpt.get();
             boolean wasCompleted = progress.getIsCompleted();
 
+            // Work out what this credit adds to the daily rollup before the progress
+            // record changes
+            LocalDate statDate = hours.getTimeOut().toLocalDate();
+            boolean newlyTouched = !(statDate.equals(progress.getLastUpdated())
+                    && progress.getMinutesRendered() > 0);
+
             // Add minutes
             progress.addMinutes(minutes);
+            if (!wasCompleted && progress.getIsCompleted()) {
+                // Completed on the day of the session, like the rollup credit
+                progress.setCompletedOn(statDate);
+            }
 
-            // Add the library hours ID to the contributing sessions
-            progress.addContributingLibraryHoursId(libraryHoursId);
-
-            // Update the library hours record to point to this requirement
+            // Link the session to this requirement; this is the contributing-sessions record
             hours.setRequirementId(progress.getId());
             libraryHoursRepository.save(hours);
 
@@ -482,6 +420,10 @@ public class LibraryRequirementProgressService {
             logger.info("Added " + minutes + " minutes to progress ID: " + progress.getId() +
                     " (" + progress.getSubject() + " - " + progress.getQuarter() + " Quarter)");
 
+            // Update the daily statistics rollup in the same transaction
+            dailyLibraryStatsService.recordCredit(hours, progress, minutes,
+                    newlyTouched, !wasCompleted && progress.getIsCompleted());
+
             // Check if the requirement was just completed
             if (!wasCompleted && progress.getIsCompleted()) {
                 // Send completion notification
@@ -542,17 +484,8 @@ public class LibraryRequirementProgressService {
      * This will initialize requirements if none exist and check for new ones
      */
     public Map<String, Object> getProgressSummaryWithInit(String studentId) {
-        // Check if student has any requirements
-        long requirementCount = progressRepository.countByStudentId(studentId);
-
-        if (requirementCount == 0) {
-            // Auto-initialize if no requirements found
-            logger.info("Auto-initializing requirements for student: " + studentId);
-            initializeRequirements(studentId);
-        } else {
-            // Check for new requirements if student already has some
-            checkForNewRequirements(studentId);
-        }
+        // Initialize or add new requirements unless nothing changed since the last check
+        ensureRequirementsCurrent(studentId);
 
         // Return summary
         return getProgressSummary(studentId);
@@ -583,6 +516,8 @@ public class LibraryRequirementProgressService {
         // Set grade update timestamp
         student.setGradeUpdatedAt(LocalDateTime.now());
         userRepository.save(student);
+        studentDirectory.put(student);
+        notificationService.refreshUnreadCount(student.getId());
 
         logger.info("Updated grade for student " + studentId + " from " + oldGrade +
                 " to " + newGrade + " with timestamp " + student.getGradeUpdatedAt());
@@ -645,66 +580,42 @@ public class LibraryRequirementProgressService {
             details.put("creatorName", "Unknown Teacher");
         }
 
-        // Get contributing library hours sessions with pagination
-        List<Long> allContributingSessionIds = progress.getContributingLibraryHoursIdsList();
-
-        // Calculate pagination values
+        // Get contributing library hours sessions with pagination, newest first
         int pageNum = (page != null && page >= 0) ? page : 0;
         int pageSize = (size != null && size > 0) ? size : 10; // Default page size
 
-        // Calculate total pages
-        int totalItems = allContributingSessionIds.size();
-        int totalPages = (int) Math.ceil((double) totalItems / pageSize);
-
-        // Get subset of IDs for the requested page
-        List<Long> paginatedIds;
-        int fromIndex = pageNum * pageSize;
-        if (fromIndex >= allContributingSessionIds.size()) {
-            paginatedIds = new ArrayList<>();
-        } else {
-            int toIndex = Math.min(fromIndex + pageSize, allContributingSessionIds.size());
-            paginatedIds = allContributingSessionIds.subList(fromIndex, toIndex);
-        }
+        Page<LibraryHours> sessionPage = libraryHoursRepository.findByRequirementId(progress.getId(),
+                PageRequest.of(pageNum, pageSize, Sort.by(Sort.Direction.DESC, "timeIn")));
+        long totalItems = sessionPage.getTotalElements();
+        int totalPages = sessionPage.getTotalPages();
 
         List<Map<String, Object>> contributingSessions = new ArrayList<>();
 
-        // Only process the IDs for the current page
-        for (Long sessionId : paginatedIds) {
-            Optional<LibraryHours> sessionOpt = libraryHoursRepository.findById(sessionId);
-            if (sessionOpt.isPresent()) {
-                LibraryHours session = sessionOpt.get();
-                Map<String, Object> sessionDetails = new HashMap<>();
-
-                sessionDetails.put("id", session.getId());
-                sessionDetails.put("timeIn", session.getTimeIn());
-                sessionDetails.put("timeOut", session.getTimeOut());
-                sessionDetails.put("bookTitle", session.getBookTitle());
-                sessionDetails.put("summary", session.getSummary());
-
-                // Calculate minutes for this session
-                int sessionMinutes = 0;
-                if (session.getTimeIn() != null && session.getTimeOut() != null) {
-                    sessionMinutes = (int) Duration.between(session.getTimeIn(), session.getTimeOut()).toMinutes();
-                }
-                sessionDetails.put("minutes", sessionMinutes);
+        for (LibraryHours session : sessionPage.getContent()) {
+            Map<String, Object> sessionDetails = new HashMap<>();
 
-                // Calculate contribution percentage
-                double contributionPercentage = 0;
-                if (progress.getRequiredMinutes() > 0) {
-                    contributionPercentage = (double) sessionMinutes / progress.getRequiredMinutes() * 100;
-                }
-                sessionDetails.put("contributionPercentage", Math.min(100.0, contributionPercentage));
+            sessionDetails.put("id", session.getId());
+            sessionDetails.put("timeIn", session.getTimeIn());
+            sessionDetails.put("timeOut", session.getTimeOut());
+            sessionDetails.put("bookTitle", session.getBookTitle());
+            sessionDetails.put("summary", session.getSummary());
 
-                contributingSessions.add(sessionDetails);
+            // Calculate minutes for this session
+            int sessionMinutes = 0;
+            if (session.getTimeIn() != null && session.getTimeOut() != null) {
+                sessionMinutes = (int) Duration.between(session.getTimeIn(), session.getTimeOut()).toMinutes();
             }
-        }
+            sessionDetails.put("minutes", sessionMinutes);
+
+            // Calculate contribution percentage
+            double contributionPercentage = 0;
+            if (progress.getRequiredMinutes() > 0) {
+                contributionPercentage = (double) sessionMinutes / progress.getRequiredMinutes() * 100;
+            }
+            sessionDetails.put("contributionPercentage", Math.min(100.0, contributionPercentage));
 
-        // Sort sessions by date (newest first)
-        contributingSessions.sort((a, b) -> {
-            LocalDateTime timeA = (LocalDateTime) a.get("timeIn");
-            LocalDateTime timeB = (LocalDateTime) b.get("timeIn");
-            return timeB.compareTo(timeA);
-        });
+            contributingSessions.add(sessionDetails);
+        }
 
         details.put("contributingSessions", contributingSessions);
         details.put("pagination", Map.of(
@@ -716,51 +627,6 @@ public class LibraryRequirementProgressService {
         return details;
     }
 
-    /**
-     * Migrate existing library hours data to link with requirements
-     * This method processes all library hours records that have a requirement ID
-     * assigned
-     * and adds them to the contributing sessions list of the corresponding
-     * requirement
-     */
-    @Transactional
-    public void migrateExistingLibraryHoursToRequirements() {
-        logger.info("Starting migration of existing library hours to requirement contributing sessions");
-
-        // Get all library hours with a requirementId set
-        List<LibraryHours> libraryHoursWithRequirement = libraryHoursRepository.findByRequirementIdIsNotNull();
-
-        int processed = 0;
-        int errors = 0;
-
-        for (LibraryHours hours : libraryHoursWithRequirement) {
-            try {
-                // Find the requirement
-                Optional<LibraryRequirementProgress> progressOpt = progressRepository
-                        .findById(hours.getRequirementId());
-
-                if (progressOpt.isPresent()) {
-                    LibraryRequirementProgress progress = progressOpt.get();
-
-                    // Add the library hours ID to the contributing sessions
-                    progress.addContributingLibraryHoursId(hours.getId());
-
-                    // Save the updated progress
-                    progressRepository.save(progress);
-                    processed++;
-                } else {
-                    logger.warning("Referenced requirement not found: " + hours.getRequirementId());
-                    errors++;
-                }
-            } catch (Exception e) {
-                logger.severe("Error processing library hours " + hours.getId() + ": " + e.getMessage());
-                errors++;
-            }
-        }
-
-        logger.info("Migration completed. Processed: " + processed + ", Errors: " + errors);
-    }
-
     /**
      * Send notification for completed requirement
      */
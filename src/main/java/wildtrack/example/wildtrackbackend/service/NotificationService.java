@@ -1,32 +1,98 @@
 package wildtrack.example.wildtrackbackend.service;
 
+import wildtrack.example.wildtrackbackend.dto.NotificationPreviewDTO;
 import wildtrack.example.wildtrackbackend.entity.Notification;
 import wildtrack.example.wildtrackbackend.entity.SetLibraryHours;
 import wildtrack.example.wildtrackbackend.entity.User;
+import wildtrack.example.wildtrackbackend.repository.NotificationBatchRepository;
+import wildtrack.example.wildtrackbackend.repository.NotificationReadReceiptRepository;
 import wildtrack.example.wildtrackbackend.repository.NotificationRepository;
 import wildtrack.example.wildtrackbackend.repository.UserRepository;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.logging.Logger;
 import java.time.format.DateTimeFormatter;
 
 @Service
 public class NotificationService {
+    private static final Logger logger = Logger.getLogger(NotificationService.class.getName());
 
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private NotificationBatchRepository notificationBatchRepository;
+
     @Autowired
     private UserRepository userRepository;
 
-    // Create notifications for an approved library hours requirement
-    public List<Notification> createLibraryHoursNotification(SetLibraryHours libraryHours) {
+    @Autowired
+    private NotificationReadReceiptRepository readReceiptRepository;
+
+    @Autowired
+    private StudentDirectory studentDirectory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UnreadCountRegistry unreadCounts;
+
+    // Store one notification per grade instead of one copy per student. Off until
+    // clients send idNumber on mark-read and delete, which broadcasts need.
+    @Value("${wildtrack.notifications.grade-broadcast:false}")
+    private boolean gradeBroadcast;
+
+    // Read personal notifications, and grade broadcasts every recipient has read
+    // or dismissed, are removed by the retention job once older than this
+    @Value("${wildtrack.notifications.retention-days:180}")
+    private int retentionDays;
+
+    @Value("${wildtrack.notifications.retention-chunk-size:1000}")
+    private int retentionChunkSize;
+
+    @Value("${wildtrack.notifications.feed.page-size:20}")
+    private int feedPageSize;
+
+    @Value("${wildtrack.notifications.feed.max-page-size:100}")
+    private int feedMaxPageSize;
+
+    // Start of the feed: newer than anything stored
+    private static final LocalDateTime FEED_START = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    // Lower bound for broadcast visibility when a user has no creation timestamp
+    private static final LocalDateTime BROADCAST_EPOCH = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    // Create notifications for an approved library hours requirement.
+    // Returns the number of notifications created.
+    @Transactional
+    public int createLibraryHoursNotification(SetLibraryHours libraryHours) {
         // Only create notifications for approved library hours
         if (!"APPROVED".equals(libraryHours.getApprovalStatus())) {
-            return null;
+            return 0;
         }
 
         String formattedDate = libraryHours.getDeadline().format(DateTimeFormatter.ofPattern("MMMM d, yyyy"));
@@ -40,20 +106,10 @@ public class NotificationService {
                 formattedDate,
                 libraryHours.getQuarter().getValue());
 
-        // Find all students in the specified grade level
-        List<User> studentsInGrade = userRepository.findByRoleAndGrade("Student", libraryHours.getGradeLevel());
-
-        // Create individual notifications for each student
-        for (User student : studentsInGrade) {
-            Notification notification = new Notification(
-                    student.getId(), // Individual student ID
-                    title,
-                    message,
-                    "LIBRARY_HOURS",
-                    libraryHours.getId());
-
-            notificationRepository.save(notification);
-        }
+        // Notify the students in the grade; rows are inserted in bulk
+        List<Notification> notifications = new ArrayList<>();
+        addGradeNotifications(notifications, libraryHours.getGradeLevel(), title, message,
+                "LIBRARY_HOURS", libraryHours.getId());
 
         // Also create a notification for the teacher who created the requirement
         if (libraryHours.getCreatedById() != null) {
@@ -72,18 +128,21 @@ public class NotificationService {
                     "LIBRARY_HOURS_APPROVED",
                     libraryHours.getId());
 
-            notificationRepository.save(teacherNotification);
+            notifications.add(teacherNotification);
         }
 
-        // Return all created notifications
-        return notificationRepository.findByReferenceId(libraryHours.getId());
+        int created = notificationBatchRepository.insertAll(notifications);
+        countsIncremented(notifications);
+        return created;
     }
 
-    // Create notifications for students when a library hours requirement is updated
-    public List<Notification> createLibraryHoursUpdateNotification(SetLibraryHours libraryHours) {
+    // Create notifications for students when a library hours requirement is updated.
+    // Returns the number of notifications created.
+    @Transactional
+    public int createLibraryHoursUpdateNotification(SetLibraryHours libraryHours) {
         // Only create notifications for approved library hours
         if (!"APPROVED".equals(libraryHours.getApprovalStatus())) {
-            return null;
+            return 0;
         }
 
         String formattedDate = libraryHours.getDeadline() != null
@@ -102,20 +161,10 @@ public class NotificationService {
             message += String.format("\n\nTask: %s", libraryHours.getTask());
         }
 
-        // Find all students in the specified grade level
-        List<User> studentsInGrade = userRepository.findByRoleAndGrade("Student", libraryHours.getGradeLevel());
-
-        // Create individual notifications for each student
-        for (User student : studentsInGrade) {
-            Notification notification = new Notification(
-                    student.getId(),
-                    title,
-                    message,
-                    "LIBRARY_HOURS_UPDATED",
-                    libraryHours.getId());
-
-            notificationRepository.save(notification);
-        }
+        // Notify the students in the grade; rows are inserted in bulk
+        List<Notification> notifications = new ArrayList<>();
+        addGradeNotifications(notifications, libraryHours.getGradeLevel(), title, message,
+                "LIBRARY_HOURS_UPDATED", libraryHours.getId());
 
         // Also create a notification for the teacher who created the requirement (if
         // different from updater)
@@ -135,11 +184,12 @@ public class NotificationService {
                     "LIBRARY_HOURS_UPDATED",
                     libraryHours.getId());
 
-            notificationRepository.save(teacherNotification);
+            notifications.add(teacherNotification);
         }
 
-        // Return all created notifications
-        return notificationRepository.findByReferenceId(libraryHours.getId());
+        int created = notificationBatchRepository.insertAll(notifications);
+        countsIncremented(notifications);
+        return created;
     }
 
     // Create notification when library hours are rejected
@@ -180,7 +230,9 @@ public class NotificationService {
                 "LIBRARY_HOURS_REJECTED",
                 libraryHours.getId());
 
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        countsIncremented(List.of(saved));
+        return saved;
     }
 
     // Create notification for librarians
@@ -204,6 +256,7 @@ public class NotificationService {
                     "LIBRARIAN_ALERT",
                     null);
             Notification saved = notificationRepository.save(notification);
+            countsIncremented(List.of(saved));
 
             if (firstNotification == null) {
                 firstNotification = saved;
@@ -234,6 +287,7 @@ public class NotificationService {
                     "TEACHER_ALERT",
                     null);
             Notification saved = notificationRepository.save(notification);
+            countsIncremented(List.of(saved));
 
             if (firstNotification == null) {
                 firstNotification = saved;
@@ -243,59 +297,403 @@ public class NotificationService {
         return firstNotification;
     }
 
-    // Get notifications for a specific user
-    public List<Notification> getUserNotifications(Long userId) {
-        // Only get notifications specifically for this user ID
-        return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    // Get notifications for a user: personal ones plus broadcasts for their grade
+    public List<Notification> getUserNotifications(User user) {
+        List<String> gradeLevels = broadcastGradeLevels(user);
+        if (gradeLevels.isEmpty()) {
+            return notificationRepository.findByUserIdOrderByCreatedAtDesc(user.getId());
+        }
+
+        List<Notification> notifications = notificationRepository.findPersonalAndBroadcast(
+                user.getId(), gradeLevels, broadcastSince(user));
+
+        List<Long> broadcastIds = notifications.stream()
+                .filter(notification -> notification.getUserId() == null)
+                .map(Notification::getId)
+                .toList();
+        if (broadcastIds.isEmpty()) {
+            return notifications;
+        }
+
+        // Broadcast read state comes from this user's read receipts
+        Set<Long> readIds = new HashSet<>(readReceiptRepository.findReadNotificationIds(user.getId(), broadcastIds));
+        List<Notification> result = new ArrayList<>(notifications.size());
+        for (Notification notification : notifications) {
+            result.add(notification.getUserId() == null
+                    ? broadcastView(notification, readIds.contains(notification.getId()))
+                    : notification);
+        }
+        return result;
+    }
+
+    /**
+     * One page of the user's notification feed, newest first.
+     * Pages are keyed on (createdAt, id) rather than offsets, so each page costs
+     * the same however long the history is. Personal rows and grade broadcasts
+     * are read page-sized from their own indexes and merged.
+     */
+    public Map<String, Object> getNotificationFeed(User user, String cursor, Integer limit, boolean unreadOnly) {
+        int pageSize = Math.min(limit != null && limit > 0 ? limit : feedPageSize, feedMaxPageSize);
+        LocalDateTime cursorAt = FEED_START;
+        Long cursorId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] parts = decodeCursor(cursor);
+            cursorAt = LocalDateTime.parse(parts[0]);
+            cursorId = Long.parseLong(parts[1]);
+        }
+
+        // One extra row tells whether another page exists
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<NotificationPreviewDTO> items = new ArrayList<>();
+        for (Object[] row : notificationRepository.findPersonalFeedPage(user.getId(), unreadOnly, cursorAt,
+                cursorId, page)) {
+            items.add(new NotificationPreviewDTO(row));
+        }
+
+        List<String> gradeLevels = broadcastGradeLevels(user);
+        if (!gradeLevels.isEmpty()) {
+            for (Object[] row : notificationRepository.findBroadcastFeedPage(user.getId(), gradeLevels,
+                    broadcastSince(user), unreadOnly, cursorAt, cursorId, page)) {
+                items.add(new NotificationPreviewDTO(row));
+            }
+            items.sort(Comparator.comparing(NotificationPreviewDTO::getCreatedAt)
+                    .thenComparing(NotificationPreviewDTO::getId).reversed());
+        }
+
+        boolean hasMore = items.size() > pageSize;
+        if (hasMore) {
+            items = new ArrayList<>(items.subList(0, pageSize));
+        }
+
+        Map<String, Object> feed = new LinkedHashMap<>();
+        feed.put("notifications", items);
+        feed.put("hasMore", hasMore);
+        if (hasMore) {
+            NotificationPreviewDTO last = items.get(items.size() - 1);
+            feed.put("nextCursor", encodeCursor(last.getCreatedAt(), last.getId()));
+        }
+        return feed;
+    }
+
+    // A single notification with its full message; broadcasts carry the user's read state
+    public Notification getNotification(Long notificationId, User user) {
+        Notification notification = notificationRepository.findById(notificationId)
+                .orElseThrow(() -> new RuntimeException("Notification not found with ID: " + notificationId));
+        if (isBroadcast(notification) && user != null) {
+            boolean read = !readReceiptRepository.findReadNotificationIds(user.getId(),
+                    List.of(notificationId)).isEmpty();
+            return broadcastView(notification, read);
+        }
+        return notification;
     }
 
     // Get notifications for a user by ID number
     public List<Notification> getUserNotificationsByIdNumber(String idNumber) {
         Optional<User> userOpt = userRepository.findByIdNumber(idNumber);
         if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            return notificationRepository.findByUserIdOrderByCreatedAtDesc(user.getId());
+            return getUserNotifications(userOpt.get());
         }
         return List.of(); // Return empty list if user not found
     }
 
-    // Mark notification as read
-    public Notification markAsRead(Long notificationId) {
+    // Mark notification as read; grade broadcasts are marked for the given user only
+    @Transactional
+    public Notification markAsRead(Long notificationId, User user) {
         Optional<Notification> notificationOpt = notificationRepository.findById(notificationId);
         if (notificationOpt.isPresent()) {
             Notification notification = notificationOpt.get();
+            if (isBroadcast(notification)) {
+                if (user == null) {
+                    throw new IllegalArgumentException(
+                            "idNumber is required to mark a grade notification as read");
+                }
+                readReceiptRepository.markRead(notificationId, user.getId(), LocalDateTime.now());
+                countsChanged(List.of(user.getId()));
+                return broadcastView(notification, true);
+            }
             notification.setRead(true);
+            countsChanged(affectedUserIds(List.of(notification)));
             return notificationRepository.save(notification);
         }
         throw new RuntimeException("Notification not found with ID: " + notificationId);
     }
 
-    // Mark all notifications as read for a user
-    public void markAllAsRead(Long userId) { // removed unused gradeLevel parameter
-        List<Notification> notifications = notificationRepository.findByUserId(userId);
-        notifications.forEach(notification -> notification.setRead(true));
-        notificationRepository.saveAll(notifications);
+    // Mark all notifications as read for a user, including grade broadcasts.
+    // Returns the number of notifications that changed to read.
+    @Transactional
+    public int markAllAsRead(User user) {
+        int updated = notificationRepository.markAllReadForUser(user.getId());
+
+        List<String> gradeLevels = broadcastGradeLevels(user);
+        if (!gradeLevels.isEmpty()) {
+            updated += readReceiptRepository.markAllBroadcastsRead(user.getId(), gradeLevels, broadcastSince(user),
+                    LocalDateTime.now());
+        }
+        countsChanged(List.of(user.getId()));
+        return updated;
+    }
+
+    // Mark all of a user's notifications of one type as read
+    @Transactional
+    public int markAsReadByType(User user, String type) {
+        int updated = notificationRepository.markReadForUserByType(user.getId(), type);
+
+        List<String> gradeLevels = broadcastGradeLevels(user);
+        if (!gradeLevels.isEmpty()) {
+            updated += readReceiptRepository.markBroadcastsReadByType(user.getId(), gradeLevels,
+                    broadcastSince(user), type, LocalDateTime.now());
+        }
+        countsChanged(List.of(user.getId()));
+        return updated;
+    }
+
+    // Delete a user's read notifications created before the cutoff
+    @Transactional
+    public int purgeReadOlderThan(User user, LocalDateTime before) {
+        return notificationRepository.deleteReadForUserOlderThan(user.getId(), before);
+    }
+
+    /**
+     * Nightly retention: remove read personal notifications, and grade broadcasts
+     * that every receiving student has read or dismissed, once older than the
+     * retention period. Unread rows are kept. Rows are deleted in bounded chunks,
+     * each in its own transaction, so locks stay short.
+     */
+    @Scheduled(cron = "0 0 2 * * *", zone = "Asia/Manila")
+    public void purgeExpiredNotifications() {
+        LocalDateTime before = LocalDateTime.now().minusDays(retentionDays);
+        int chunkSize = Math.max(1, retentionChunkSize);
+
+        int personalDeleted = 0;
+        int deleted;
+        do {
+            Integer count = transactionTemplate.execute(
+                    status -> notificationRepository.deleteReadOlderThan(before, chunkSize));
+            deleted = count != null ? count : 0;
+            personalDeleted += deleted;
+        } while (deleted == chunkSize);
+
+        int broadcastsDeleted = 0;
+        do {
+            Integer count = transactionTemplate.execute(status -> {
+                List<Long> ids = notificationRepository.findBroadcastIdsOlderThan(before,
+                        PageRequest.of(0, chunkSize));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                readReceiptRepository.deleteByNotificationIdIn(ids);
+                return notificationRepository.deleteByIdIn(ids);
+            });
+            deleted = count != null ? count : 0;
+            broadcastsDeleted += deleted;
+        } while (deleted == chunkSize);
+
+        logger.info("Notification retention removed " + personalDeleted + " read notification(s) and "
+                + broadcastsDeleted + " fully read broadcast(s) older than " + before.toLocalDate());
+    }
+
+    // Get unread notification count, including unread grade broadcasts.
+    // Served from memory for a short while once counted, since changes made on
+    // another instance are only picked up when the cached value expires.
+    public Long getUnreadCount(User user) {
+        Long cached = unreadCounts.getCachedCount(user.getId());
+        if (cached != null) {
+            return cached;
+        }
+
+        UnreadCountRegistry.Stamp stamp = unreadCounts.stamp(user.getId());
+        Long unread = notificationRepository.countByUserIdAndIsReadFalse(user.getId());
+
+        List<String> gradeLevels = broadcastGradeLevels(user);
+        if (!gradeLevels.isEmpty()) {
+            unread += notificationRepository.countUnreadBroadcasts(user.getId(), gradeLevels, broadcastSince(user));
+        }
+        unreadCounts.cache(user.getId(), stamp, unread);
+        return unread;
+    }
+
+    // Open a server-sent event stream that pushes the user's unread count on every change
+    public SseEmitter streamUnreadCount(User user) {
+        return unreadCounts.subscribe(user.getId(), getUnreadCount(user));
     }
 
-    // Get unread notification count
-    public Long getUnreadCount(Long userId) { // removed unused gradeLevel parameter
-        return notificationRepository.countByUserIdAndIsReadFalse(userId); // Fixed method name
+    // Recount a user's unread notifications, e.g. after a grade change, and push it to open streams
+    public void refreshUnreadCount(Long userId) {
+        afterCommit(() -> {
+            unreadCounts.invalidate(userId);
+            if (unreadCounts.hasSubscribers(userId)) {
+                userRepository.findById(userId)
+                        .ifPresent(user -> unreadCounts.publish(userId, getUnreadCount(user)));
+            }
+        });
     }
 
     // Create notification for individual user
     public Notification createUserNotification(Long userId, String title, String message, String type,
             Long referenceId) {
         Notification notification = new Notification(userId, title, message, type, referenceId);
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        countsIncremented(List.of(saved));
+        return saved;
     }
 
-    // Delete notification
-    public void deleteNotification(Long notificationId) {
-        Optional<Notification> notificationOpt = notificationRepository.findById(notificationId);
-        if (notificationOpt.isPresent()) {
-            notificationRepository.deleteById(notificationId);
-        } else {
-            throw new RuntimeException("Notification not found with ID: " + notificationId);
+    // Delete a notification for one user. A grade broadcast is shared by the whole
+    // grade, so it is only dismissed for this user and never removed here; that
+    // needs the user. A personal notification may be deleted without one.
+    @Transactional
+    public void deleteNotification(Long notificationId, User user) {
+        Notification notification = notificationRepository.findById(notificationId)
+                .orElseThrow(() -> new NoSuchElementException("Notification not found with ID: " + notificationId));
+
+        if (isBroadcast(notification)) {
+            if (user == null) {
+                throw new IllegalArgumentException("idNumber is required to delete a grade notification");
+            }
+            readReceiptRepository.markDismissed(notificationId, user.getId(), LocalDateTime.now());
+            countsChanged(List.of(user.getId()));
+            return;
+        }
+
+        // Users may only delete their own notifications
+        if (user != null && !user.getId().equals(notification.getUserId())) {
+            throw new NoSuchElementException("Notification not found with ID: " + notificationId);
+        }
+        notificationRepository.deleteById(notificationId);
+        countsChanged(affectedUserIds(List.of(notification)));
+    }
+
+    // Remove a notification for everyone, including a grade broadcast and its receipts
+    @Transactional
+    public void deleteNotificationPermanently(Long notificationId) {
+        Notification notification = notificationRepository.findById(notificationId)
+                .orElseThrow(() -> new NoSuchElementException("Notification not found with ID: " + notificationId));
+
+        if (isBroadcast(notification)) {
+            readReceiptRepository.deleteByNotificationId(notificationId);
+        }
+        notificationRepository.deleteById(notificationId);
+        countsChanged(affectedUserIds(List.of(notification)));
+    }
+
+    // New notifications are unread, so each affected cached count goes up by one
+    private void countsIncremented(List<Notification> notifications) {
+        Collection<Long> userIds = affectedUserIds(notifications);
+        afterCommit(() -> {
+            for (Long userId : userIds) {
+                Long count = unreadCounts.adjust(userId, 1);
+                if (count != null) {
+                    unreadCounts.publish(userId, count);
+                } else if (unreadCounts.hasSubscribers(userId)) {
+                    userRepository.findById(userId)
+                            .ifPresent(user -> unreadCounts.publish(userId, getUnreadCount(user)));
+                }
+            }
+        });
+    }
+
+    // Read state changed in a way that is cheaper to recount than to track
+    private void countsChanged(Collection<Long> userIds) {
+        for (Long userId : userIds) {
+            refreshUnreadCount(userId);
+        }
+    }
+
+    // Users whose unread count a notification contributes to
+    private Collection<Long> affectedUserIds(List<Notification> notifications) {
+        Set<Long> userIds = new HashSet<>();
+        for (Notification notification : notifications) {
+            if (notification.getUserId() != null) {
+                userIds.add(notification.getUserId());
+            } else if (isBroadcast(notification)) {
+                for (StudentDirectory.StudentEntry student : studentDirectory.findStudents(
+                        notification.getGradeLevel(), null)) {
+                    userIds.add(student.getId());
+                }
+            }
+        }
+        return userIds;
+    }
+
+    // Counts are only touched once the change is visible to other connections
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // Add the student-facing notification for a grade: a single broadcast row,
+    // or one row per student when broadcast mode is off
+    private void addGradeNotifications(List<Notification> notifications, String gradeLevel, String title,
+            String message, String type, Long referenceId) {
+        if (gradeBroadcast) {
+            notifications.add(new Notification(gradeLevel, title, message, type, referenceId));
+            return;
+        }
+
+        for (StudentDirectory.StudentEntry student : studentDirectory.findStudents(gradeLevel, null)) {
+            notifications.add(new Notification(student.getId(), title, message, type, referenceId));
+        }
+    }
+
+    private String encodeCursor(LocalDateTime createdAt, Long id) {
+        String value = createdAt + "_" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns {createdAt, id}
+    private String[] decodeCursor(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('_');
+            String[] parts = { value.substring(0, separator), value.substring(separator + 1) };
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
         }
     }
-}
\ No newline at end of file
+
+    private boolean isBroadcast(Notification notification) {
+        return notification.getUserId() == null && notification.getGradeLevel() != null;
+    }
+
+    // Grade values a broadcast may be stored under for this user ("7" and "Grade 7")
+    private List<String> broadcastGradeLevels(User user) {
+        String grade = user.getGrade();
+        if (!"Student".equals(user.getRole()) || grade == null || grade.isEmpty()) {
+            return List.of();
+        }
+        if (grade.startsWith("Grade ")) {
+            return List.of(grade, grade.substring("Grade ".length()));
+        }
+        return List.of(grade, "Grade " + grade);
+    }
+
+    // Students only see broadcasts sent after they joined their current grade,
+    // matching what they would have received as individual copies
+    private LocalDateTime broadcastSince(User user) {
+        LocalDateTime since = user.getCreatedAt() != null ? user.getCreatedAt() : BROADCAST_EPOCH;
+        if (user.getGradeUpdatedAt() != null && user.getGradeUpdatedAt().isAfter(since)) {
+            since = user.getGradeUpdatedAt();
+        }
+        return since;
+    }
+
+    // Detached copy of a broadcast carrying this user's read state
+    private Notification broadcastView(Notification broadcast, boolean read) {
+        Notification view = new Notification(broadcast.getGradeLevel(), broadcast.getTitle(), broadcast.getMessage(),
+                broadcast.getNotificationType(), broadcast.getReferenceId());
+        view.setId(broadcast.getId());
+        view.setCreatedAt(broadcast.getCreatedAt());
+        view.setRead(read);
+        return view;
+    }
+}
@@ -0,0 +1,244 @@
+package wildtrack.example.wildtrackbackend.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import wildtrack.example.wildtrackbackend.repository.TimeInRepository;
+
+/**
+ * Live count of students inside the library, in total and per grade and
+ * section. Built from the open library_hours rows on startup (or on first
+ * read) and then kept current by the time-in and time-out paths, so the
+ * dashboard needs no database round trip.
+ * Each student is counted once, under the grade and section they had when
+ * they timed in; counters are LongAdders and updates take no lock.
+ */
+@Component
+public class OccupancyTracker {
+    private static final Logger logger = Logger.getLogger(OccupancyTracker.class.getName());
+
+    @Autowired
+    private TimeInRepository timeInRepository;
+
+    @Autowired
+    private StudentDirectory studentDirectory;
+
+    @Value("${wildtrack.occupancy.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    private volatile Occupancy occupancy;
+
+    /**
+     * Grade and section a student is counted under; both are null for users
+     * who are not in the student directory
+     */
+    public record Placement(String grade, String section) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (!rebuildOnStartup) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.warning("Could not load library occupancy: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replace the counters with the students who have an open session in the database
+     */
+    public synchronized void rebuild() {
+        Occupancy rebuilt = new Occupancy();
+        for (String idNumber : timeInRepository.findAllActiveIdNumbers()) {
+            rebuilt.enter(idNumber, placementOf(idNumber));
+        }
+        occupancy = rebuilt;
+        logger.info("Loaded library occupancy with " + rebuilt.total.sum() + " student(s) inside");
+    }
+
+    /**
+     * Count a student as inside once the current transaction commits
+     */
+    public void studentEntered(String idNumber) {
+        if (idNumber == null) {
+            return;
+        }
+        afterCommit(() -> {
+            Occupancy current = occupancy;
+            if (current != null) {
+                current.enter(idNumber, placementOf(idNumber));
+            }
+        });
+    }
+
+    /**
+     * Stop counting a student once the current transaction commits
+     */
+    public void studentLeft(String idNumber) {
+        if (idNumber == null) {
+            return;
+        }
+        afterCommit(() -> {
+            Occupancy current = occupancy;
+            if (current != null) {
+                current.leave(idNumber);
+            }
+        });
+    }
+
+    /**
+     * Everyone has left, e.g. after the closing-time auto time-out
+     */
+    public void clear() {
+        afterCommit(() -> {
+            synchronized (this) {
+                if (occupancy != null) {
+                    occupancy = new Occupancy();
+                }
+            }
+        });
+    }
+
+    public boolean isInside(String idNumber) {
+        return idNumber != null && getOccupancy().inside.containsKey(idNumber);
+    }
+
+    /**
+     * Students inside matching the optional grade level and section filters.
+     * Grade level may be given as "7" or "Grade 7"; blank or "All Grades" matches all.
+     */
+    public long count(String gradeLevel, String section) {
+        Occupancy current = getOccupancy();
+        List<String> grades = StudentDirectory.gradeKeys(gradeLevel);
+        String sectionKey = (section == null || section.isEmpty()) ? null : section;
+
+        if (sectionKey == null) {
+            if (grades == null) {
+                return current.total.sum();
+            }
+            long count = 0;
+            for (String grade : grades) {
+                LongAdder adder = current.byGrade.get(grade);
+                count += adder != null ? adder.sum() : 0;
+            }
+            return count;
+        }
+
+        long count = 0;
+        for (Map.Entry<Placement, LongAdder> entry : current.bySection.entrySet()) {
+            Placement placement = entry.getKey();
+            if (sectionKey.equals(placement.section())
+                    && (grades == null || grades.contains(placement.grade()))) {
+                count += entry.getValue().sum();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Current totals per grade and per "grade section", skipping empty entries
+     */
+    public Map<String, Object> getBreakdown() {
+        Occupancy current = getOccupancy();
+        Map<String, Long> byGrade = new TreeMap<>();
+        current.byGrade.forEach((grade, adder) -> {
+            long count = adder.sum();
+            if (count > 0) {
+                byGrade.put(grade, count);
+            }
+        });
+        Map<String, Long> bySection = new TreeMap<>();
+        current.bySection.forEach((placement, adder) -> {
+            long count = adder.sum();
+            if (count > 0) {
+                bySection.put(placement.grade() + " " + placement.section(), count);
+            }
+        });
+        return Map.of(
+                "studentsInsideLibrary", current.total.sum(),
+                "byGrade", byGrade,
+                "bySection", bySection);
+    }
+
+    private Occupancy getOccupancy() {
+        Occupancy current = occupancy;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (occupancy == null) {
+                rebuild();
+            }
+            return occupancy;
+        }
+    }
+
+    private Placement placementOf(String idNumber) {
+        return studentDirectory.findByIdNumber(idNumber)
+                .map(student -> new Placement(student.getGrade(), student.getSection()))
+                .orElse(new Placement(null, null));
+    }
+
+    // Counters only move once the session change is visible to other connections
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * One generation of counters. The inside map decides whether a student
+     * is counted, so repeated enter or leave calls change nothing.
+     */
+    private static final class Occupancy {
+        private final Map<String, Placement> inside = new ConcurrentHashMap<>();
+        private final Map<String, LongAdder> byGrade = new ConcurrentHashMap<>();
+        private final Map<Placement, LongAdder> bySection = new ConcurrentHashMap<>();
+        private final LongAdder total = new LongAdder();
+
+        void enter(String idNumber, Placement placement) {
+            if (inside.putIfAbsent(idNumber, placement) == null) {
+                apply(placement, 1);
+            }
+        }
+
+        void leave(String idNumber) {
+            Placement placement = inside.remove(idNumber);
+            if (placement != null) {
+                apply(placement, -1);
+            }
+        }
+
+        private void apply(Placement placement, long delta) {
+            total.add(delta);
+            if (placement.grade() != null) {
+                byGrade.computeIfAbsent(placement.grade(), grade -> new LongAdder()).add(delta);
+            }
+            if (placement.grade() != null && placement.section() != null) {
+                bySection.computeIfAbsent(placement, key -> new LongAdder()).add(delta);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package wildtrack.example.wildtrackbackend.service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import wildtrack.example.wildtrackbackend.entity.LibraryHours;
+import wildtrack.example.wildtrackbackend.repository.LibraryHoursRepository;
+
+/**
+ * Per-student cache of the open library session (time-in without time-out).
+ * Holds only the session id, so a lookup costs at most one primary-key read no
+ * matter how many sessions the student has. A cached id is always re-checked
+ * against the row before it is returned. "No open session" is never cached:
+ * another instance may open one at any time, so a miss always goes to the
+ * indexed query.
+ */
+@Component
+public class OpenSessionCache {
+
+    @Autowired
+    private LibraryHoursRepository libraryHoursRepository;
+
+    private final Map<String, Long> openSessionIds = new ConcurrentHashMap<>();
+
+    /**
+     * The student's open session, if any
+     */
+    public Optional<LibraryHours> findOpenSession(String idNumber) {
+        Long cached = openSessionIds.get(idNumber);
+        if (cached != null) {
+            Optional<LibraryHours> session = libraryHoursRepository.findById(cached)
+                    .filter(lh -> lh.getTimeOut() == null);
+            if (session.isPresent()) {
+                return session;
+            }
+            // Timed out since it was cached
+            openSessionIds.remove(idNumber, cached);
+        }
+
+        Optional<LibraryHours> session = libraryHoursRepository
+                .findFirstByIdNumberAndTimeOutIsNullOrderByTimeInDesc(idNumber);
+        // Don't overwrite a newer value written by a concurrent time-in
+        session.ifPresent(lh -> openSessionIds.putIfAbsent(idNumber, lh.getId()));
+        return session;
+    }
+
+    /**
+     * Record a newly saved time-in as the student's open session
+     */
+    public void sessionOpened(LibraryHours libraryHours) {
+        openSessionIds.put(libraryHours.getIdNumber(), libraryHours.getId());
+    }
+
+    /**
+     * Forget the cached state for a student after their session changed
+     */
+    public void evict(String idNumber) {
+        if (idNumber != null) {
+            openSessionIds.remove(idNumber);
+        }
+    }
+
+    public void evictAll() {
+        openSessionIds.clear();
+    }
+}
@@ -0,0 +1,287 @@
+package wildtrack.example.wildtrackbackend.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import wildtrack.example.wildtrackbackend.entity.OutboxEvent;
+import wildtrack.example.wildtrackbackend.entity.SetLibraryHours;
+import wildtrack.example.wildtrackbackend.repository.OutboxEventRepository;
+import wildtrack.example.wildtrackbackend.repository.SetLibraryHoursRepository;
+
+/**
+ * Drains the outbox in the background.
+ * Each poll claims a batch of due events and runs them on virtual threads,
+ * with at most maxConcurrency handlers at once. A handler and the DONE mark
+ * commit together; a failed event is retried with exponential backoff until
+ * maxAttempts, then left as FAILED.
+ */
+@Component
+public class OutboxDispatcher {
+    private static final Logger logger = Logger.getLogger(OutboxDispatcher.class.getName());
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private SetLibraryHoursRepository setLibraryHoursRepository;
+
+    @Autowired
+    private SetLibraryHoursService setLibraryHoursService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private ActivityLogService activityLogService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${wildtrack.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${wildtrack.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${wildtrack.outbox.max-concurrency:4}")
+    private int maxConcurrency;
+
+    @Value("${wildtrack.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    // Events left PROCESSING longer than this are assumed abandoned
+    @Value("${wildtrack.outbox.processing-timeout-minutes:5}")
+    private int processingTimeoutMinutes;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private Semaphore permits;
+
+    // Side-effect metrics, kept apart from request latency
+    private final long startedAt = System.currentTimeMillis();
+    private final AtomicLong processedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong handlerNanosTotal = new AtomicLong();
+    private final AtomicLong lagMillisTotal = new AtomicLong();
+    private final AtomicLong lagMillisMax = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        permits = new Semaphore(Math.max(1, maxConcurrency));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${wildtrack.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository
+                .releaseStale(now.minusMinutes(processingTimeoutMinutes)));
+
+        List<OutboxEvent> batch = outboxEventRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                OutboxEvent.STATUS_PENDING, now, PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<Future<?>> running = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            Integer claimed = transactionTemplate.execute(status -> outboxEventRepository.claim(event.getId(), now));
+            if (claimed == null || claimed == 0) {
+                continue; // Claimed by another instance
+            }
+
+            permits.acquireUninterruptibly();
+            try {
+                running.add(executor.submit(() -> {
+                    try {
+                        process(event);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        // Finish this batch before polling again
+        for (Future<?> future : running) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                logger.warning("Outbox handler crashed: " + e.getCause());
+            }
+        }
+    }
+
+    private void process(OutboxEvent event) {
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                handle(event);
+                OutboxEvent done = outboxEventRepository.findById(event.getId()).orElseThrow();
+                done.setStatus(OutboxEvent.STATUS_DONE);
+                done.setProcessedAt(LocalDateTime.now());
+                done.setAttempts(done.getAttempts() + 1);
+                done.setLastError(null);
+                outboxEventRepository.save(done);
+            });
+
+            processedCount.incrementAndGet();
+            long lag = Duration.between(event.getCreatedAt(), LocalDateTime.now()).toMillis();
+            lagMillisTotal.addAndGet(lag);
+            lagMillisMax.accumulateAndGet(lag, Math::max);
+        } catch (Exception e) {
+            transactionTemplate.executeWithoutResult(status -> recordFailure(event.getId(), e));
+        } finally {
+            handlerNanosTotal.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    private void recordFailure(Long eventId, Exception error) {
+        OutboxEvent event = outboxEventRepository.findById(eventId).orElse(null);
+        if (event == null) {
+            return;
+        }
+
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        String message = String.valueOf(error.getMessage());
+        event.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+
+        if (attempts >= maxAttempts) {
+            event.setStatus(OutboxEvent.STATUS_FAILED);
+            failedCount.incrementAndGet();
+            logger.severe("Outbox event " + eventId + " (" + event.getEventType() + ") failed after "
+                    + attempts + " attempt(s): " + message);
+        } else {
+            // Back off 2, 4, 8... seconds, capped at 5 minutes
+            long delaySeconds = Math.min(300, 1L << attempts);
+            event.setStatus(OutboxEvent.STATUS_PENDING);
+            event.setNextAttemptAt(LocalDateTime.now().plusSeconds(delaySeconds));
+            retryCount.incrementAndGet();
+            logger.warning("Outbox event " + eventId + " (" + event.getEventType() + ") failed, retrying in "
+                    + delaySeconds + "s: " + message);
+        }
+        outboxEventRepository.save(event);
+    }
+
+    private void handle(OutboxEvent event) {
+        switch (event.getEventType()) {
+            case OutboxEvent.LIBRARY_HOURS_CREATED_NOTIFICATION -> {
+                SetLibraryHours libraryHours = findRequirement(event);
+                if (libraryHours != null) {
+                    notificationService.createLibraryHoursNotification(libraryHours);
+                }
+            }
+            case OutboxEvent.LIBRARY_HOURS_UPDATED_NOTIFICATION -> {
+                SetLibraryHours libraryHours = findRequirement(event);
+                if (libraryHours != null) {
+                    notificationService.createLibraryHoursUpdateNotification(libraryHours);
+                }
+            }
+            case OutboxEvent.LIBRARY_HOURS_PROGRESS_SYNC -> {
+                SetLibraryHours libraryHours = findRequirement(event);
+                if (libraryHours != null) {
+                    setLibraryHoursService.updateStudentProgressRecords(libraryHours);
+                }
+            }
+            case OutboxEvent.LIBRARY_HOURS_CREATED_LOG -> {
+                Map<String, Object> payload = readPayload(event);
+                activityLogService.logLibraryHoursCreation(
+                        ((Number) payload.get("userId")).longValue(),
+                        (String) payload.get("subject"),
+                        (String) payload.get("gradeLevel"),
+                        (String) payload.get("quarter"));
+            }
+            case OutboxEvent.LIBRARY_HOURS_UPDATED_LOG -> {
+                Map<String, Object> payload = readPayload(event);
+                activityLogService.logLibraryHoursUpdate(
+                        ((Number) payload.get("userId")).longValue(),
+                        (String) payload.get("subject"),
+                        (String) payload.get("gradeLevel"),
+                        (String) payload.get("quarter"));
+            }
+            default -> throw new RuntimeException("Unknown outbox event type: " + event.getEventType());
+        }
+    }
+
+    // The requirement may have been deleted since the event was recorded
+    private SetLibraryHours findRequirement(OutboxEvent event) {
+        SetLibraryHours libraryHours = setLibraryHoursRepository.findById(event.getAggregateId()).orElse(null);
+        if (libraryHours == null) {
+            logger.info("Skipping outbox event " + event.getId() + ": library hours requirement "
+                    + event.getAggregateId() + " no longer exists");
+        }
+        return libraryHours;
+    }
+
+    private Map<String, Object> readPayload(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), new TypeReference<Map<String, Object>>() {
+            });
+        } catch (Exception e) {
+            throw new RuntimeException("Invalid payload for outbox event " + event.getId(), e);
+        }
+    }
+
+    /**
+     * Backlog and throughput of side-effect processing since startup
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        long processed = processedCount.get();
+        double uptimeMinutes = Math.max(1, System.currentTimeMillis() - startedAt) / 60000.0;
+
+        metrics.put("pending", outboxEventRepository.countByStatus(OutboxEvent.STATUS_PENDING));
+        metrics.put("processing", outboxEventRepository.countByStatus(OutboxEvent.STATUS_PROCESSING));
+        metrics.put("failed", outboxEventRepository.countByStatus(OutboxEvent.STATUS_FAILED));
+        metrics.put("processedSinceStart", processed);
+        metrics.put("failedSinceStart", failedCount.get());
+        metrics.put("retriesSinceStart", retryCount.get());
+        metrics.put("eventsPerMinute", processed / uptimeMinutes);
+        long attempts = processed + failedCount.get() + retryCount.get();
+        metrics.put("handlerAvgMillis", attempts > 0 ? handlerNanosTotal.get() / attempts / 1_000_000.0 : 0.0);
+        metrics.put("lagAvgMillis", processed > 0 ? lagMillisTotal.get() / (double) processed : 0.0);
+        metrics.put("lagMaxMillis", lagMillisMax.get());
+        return metrics;
+    }
+}
@@ -0,0 +1,43 @@
+package wildtrack.example.wildtrackbackend.service;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import wildtrack.example.wildtrackbackend.entity.OutboxEvent;
+import wildtrack.example.wildtrackbackend.repository.OutboxEventRepository;
+
+/**
+ * Records side effects in the outbox as part of the caller's transaction.
+ * The OutboxDispatcher picks them up once that transaction commits.
+ */
+@Service
+public class OutboxService {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxEvent enqueue(String eventType, Long aggregateId) {
+        return outboxEventRepository.save(new OutboxEvent(eventType, aggregateId, null));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxEvent enqueue(String eventType, Long aggregateId, Map<String, Object> payload) {
+        try {
+            String json = objectMapper.writeValueAsString(payload);
+            return outboxEventRepository.save(new OutboxEvent(eventType, aggregateId, json));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize outbox payload for " + eventType, e);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package wildtrack.example.wildtrackbackend.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import wildtrack.example.wildtrackbackend.entity.SetLibraryHours;
+import wildtrack.example.wildtrackbackend.repository.SetLibraryHoursRepository;
+
+/**
+ * In-memory catalog of library hours requirements per grade level.
+ * Each grade's list is loaded once and carries a version that
+ * SetLibraryHoursService bumps after a requirement for that grade is created
+ * or updated. LibraryRequirementProgressService remembers, per student, the
+ * grade and version it last synced progress rows against, so the
+ * new-requirement check costs nothing until the grade's catalog changes.
+ */
+@Component
+public class RequirementCatalog {
+
+    @Autowired
+    private SetLibraryHoursRepository requirementRepository;
+
+    // Versions only grow, so a stale load or sync is never mistaken for a current one
+    private final AtomicLong versionSource = new AtomicLong();
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+    private final Map<String, GradeRequirements> catalog = new ConcurrentHashMap<>();
+    private final Map<String, SyncStamp> syncedStudents = new ConcurrentHashMap<>();
+
+    /**
+     * The fields of a requirement that progress rows are created from
+     */
+    public record RequirementEntry(Long id, String subject, String quarter, Integer minutes,
+            LocalDate deadline, LocalDateTime createdAt) {
+
+        RequirementEntry(SetLibraryHours requirement) {
+            this(requirement.getId(), requirement.getSubject(),
+                    requirement.getQuarter() != null ? requirement.getQuarter().getValue() : null,
+                    requirement.getMinutes(), requirement.getDeadline(), requirement.getCreatedAt());
+        }
+    }
+
+    /**
+     * A grade's requirements as of one catalog version
+     */
+    public record GradeRequirements(long version, List<RequirementEntry> requirements) {
+    }
+
+    private record SyncStamp(String gradeLevel, long version) {
+    }
+
+    /**
+     * Requirements for a grade level, loaded on first use
+     */
+    public GradeRequirements getRequirements(String gradeLevel) {
+        String key = String.valueOf(gradeLevel);
+        GradeRequirements cached = catalog.get(key);
+        long version = currentVersion(key);
+        if (cached != null && cached.version() == version) {
+            return cached;
+        }
+
+        List<RequirementEntry> entries = new ArrayList<>();
+        for (SetLibraryHours requirement : requirementRepository.findByGradeLevel(gradeLevel)) {
+            entries.add(new RequirementEntry(requirement));
+        }
+        GradeRequirements loaded = new GradeRequirements(version, Collections.unmodifiableList(entries));
+
+        // Keep it only if no change for the grade committed while it was loading
+        versions.compute(key, (grade, current) -> {
+            if ((current != null ? current : 0L) == version) {
+                catalog.put(grade, loaded);
+            }
+            return current;
+        });
+        return loaded;
+    }
+
+    public long currentVersion(String gradeLevel) {
+        return versions.getOrDefault(String.valueOf(gradeLevel), 0L);
+    }
+
+    /**
+     * Drop a grade's requirements once the current transaction commits
+     */
+    public void invalidate(String gradeLevel) {
+        if (gradeLevel == null) {
+            return;
+        }
+        afterCommit(() -> versions.compute(gradeLevel, (grade, current) -> {
+            catalog.remove(grade);
+            return versionSource.incrementAndGet();
+        }));
+    }
+
+    /**
+     * Whether the student's progress rows were synced against the grade's
+     * current catalog
+     */
+    public boolean isSynced(String studentId, String gradeLevel) {
+        SyncStamp stamp = syncedStudents.get(studentId);
+        return stamp != null && stamp.gradeLevel().equals(gradeLevel)
+                && stamp.version() == currentVersion(gradeLevel);
+    }
+
+    /**
+     * Record that the student's rows match the given catalog version, once the
+     * rows are committed
+     */
+    public void markSynced(String studentId, String gradeLevel, long version) {
+        if (studentId == null || gradeLevel == null) {
+            return;
+        }
+        afterCommit(() -> syncedStudents.put(studentId, new SyncStamp(gradeLevel, version)));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,100 @@
+package wildtrack.example.wildtrackbackend.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import wildtrack.example.wildtrackbackend.entity.LibraryRequirementProgress;
+import wildtrack.example.wildtrackbackend.entity.SetLibraryHours;
+import wildtrack.example.wildtrackbackend.repository.LibraryRequirementProgressRepository;
+import wildtrack.example.wildtrackbackend.repository.SetLibraryHoursRepository;
+
+/**
+ * Creates LibraryRequirementProgress rows when a requirement is written,
+ * instead of each student's rows being initialized on read.
+ * A student gets a row when they are in the requirement's grade and joined
+ * that grade before the requirement was created, the same rule
+ * LibraryRequirementProgressService.initializeRequirements applies per student.
+ */
+@Service
+public class RequirementMaterializer {
+    private static final Logger logger = Logger.getLogger(RequirementMaterializer.class.getName());
+
+    @Autowired
+    private LibraryRequirementProgressRepository progressRepository;
+
+    @Autowired
+    private SetLibraryHoursRepository requirementRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Fill rows that older requirements only got lazily, once per startup
+    @Value("${wildtrack.requirements.materialize-on-startup:true}")
+    private boolean materializeOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!materializeOnStartup) {
+            return;
+        }
+        try {
+            materializeAll();
+        } catch (Exception e) {
+            logger.warning("Could not backfill requirement progress records: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Insert the missing progress rows for one requirement with a single
+     * INSERT ... SELECT. Returns the number of rows created.
+     */
+    @Transactional
+    public int materialize(SetLibraryHours requirement) {
+        if (requirement.getCreatedAt() == null || requirement.getGradeLevel() == null
+                || requirement.getQuarter() == null) {
+            return 0;
+        }
+
+        String quarter = requirement.getQuarter().getValue();
+        int created = progressRepository.insertMissingForRequirement(
+                requirement.getId(),
+                requirement.getSubject(),
+                quarter,
+                requirement.getGradeLevel(),
+                requirement.getMinutes(),
+                requirement.getDeadline(),
+                requirement.getCreatedAt(),
+                LocalDateTime.now().minusYears(1),
+                LocalDate.now(),
+                LibraryRequirementProgress.academicYearForQuarter(quarter));
+
+        if (created > 0) {
+            logger.info("Created " + created + " progress record(s) for requirement " + requirement.getId()
+                    + " (" + requirement.getGradeLevel() + ")");
+        }
+        return created;
+    }
+
+    /**
+     * Backfill progress rows for every requirement, one transaction per
+     * requirement. Returns the number of rows created.
+     */
+    public int materializeAll() {
+        int created = 0;
+        for (SetLibraryHours requirement : requirementRepository.findAll()) {
+            Integer count = transactionTemplate.execute(status -> materialize(requirement));
+            created += count != null ? count : 0;
+        }
+        logger.info("Materialized " + created + " missing progress record(s)");
+        return created;
+    }
+}
@@ -1,7 +1,9 @@
 package wildtrack.example.wildtrackbackend.service;
 
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -13,6 +15,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import wildtrack.example.wildtrackbackend.dto.LibraryHoursWithCreatorDTO;
 import wildtrack.example.wildtrackbackend.entity.LibraryRequirementProgress;
+import wildtrack.example.wildtrackbackend.entity.OutboxEvent;
 import wildtrack.example.wildtrackbackend.entity.SetLibraryHours;
 import wildtrack.example.wildtrackbackend.entity.User;
 import wildtrack.example.wildtrackbackend.repository.LibraryRequirementProgressRepository;
@@ -26,10 +29,7 @@ public class SetLibraryHoursService {
     private SetLibraryHoursRepository repository;
 
     @Autowired
-    private NotificationService notificationService;
-
-    @Autowired
-    private ActivityLogService activityLogService;
+    private OutboxService outboxService;
 
     @Autowired
     private UserRepository userRepository;
@@ -37,20 +37,28 @@ public class SetLibraryHoursService {
     @Autowired
     private LibraryRequirementProgressRepository progressRepository;
 
+    @Autowired
+    private RequirementMaterializer requirementMaterializer;
+
+    @Autowired
+    private RequirementCatalog requirementCatalog;
+
+    @Transactional
     public SetLibraryHours setLibraryHours(SetLibraryHours setLibraryHours) {
         // Save the library hours requirement
         SetLibraryHours savedHours = repository.save(setLibraryHours);
 
-        // Create notification for students about the new library hours requirement
-        notificationService.createLibraryHoursNotification(savedHours);
+        // Create every student's progress row for it up front
+        requirementMaterializer.materialize(savedHours);
+        requirementCatalog.invalidate(savedHours.getGradeLevel());
+
+        // Notify students about the new requirement (sent by the outbox dispatcher)
+        outboxService.enqueue(OutboxEvent.LIBRARY_HOURS_CREATED_NOTIFICATION, savedHours.getId());
 
         // Log activity for teacher creating library hours
         if (savedHours.getCreatedById() != null) {
-            activityLogService.logLibraryHoursCreation(
-                    savedHours.getCreatedById(),
-                    savedHours.getSubject(),
-                    savedHours.getGradeLevel(),
-                    savedHours.getQuarter().getValue());
+            outboxService.enqueue(OutboxEvent.LIBRARY_HOURS_CREATED_LOG, savedHours.getId(),
+                    activityPayload(savedHours));
         }
 
         return savedHours;
@@ -65,6 +73,7 @@ public class SetLibraryHoursService {
         // Find the existing requirement
         SetLibraryHours existingHours = repository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Library hours requirement not found with id: " + id));
+        String previousGradeLevel = existingHours.getGradeLevel();
 
         System.out.println("Updating library hours requirement: " + id);
         System.out.println("Original values: Minutes=" + existingHours.getMinutes() +
@@ -135,28 +144,39 @@ public class SetLibraryHoursService {
         SetLibraryHours savedHours = repository.save(existingHours);
         System.out.println("After update, deadline is: " + savedHours.getDeadline());
 
-        // Now, update all related student progress records
-        updateStudentProgressRecords(savedHours);
+        // A changed grade level brings in students who have no progress row yet
+        requirementMaterializer.materialize(savedHours);
+        requirementCatalog.invalidate(previousGradeLevel);
+        requirementCatalog.invalidate(savedHours.getGradeLevel());
 
-        // Optional: Create notification about the updated requirement
-        notificationService.createLibraryHoursUpdateNotification(savedHours);
+        // Sync student progress records, notify and log once this commits
+        outboxService.enqueue(OutboxEvent.LIBRARY_HOURS_PROGRESS_SYNC, savedHours.getId());
+        outboxService.enqueue(OutboxEvent.LIBRARY_HOURS_UPDATED_NOTIFICATION, savedHours.getId());
 
         // Log the activity
         if (savedHours.getCreatedById() != null) {
-            activityLogService.logLibraryHoursUpdate(
-                    savedHours.getCreatedById(),
-                    savedHours.getSubject(),
-                    savedHours.getGradeLevel(),
-                    savedHours.getQuarter().getValue());
+            outboxService.enqueue(OutboxEvent.LIBRARY_HOURS_UPDATED_LOG, savedHours.getId(),
+                    activityPayload(savedHours));
         }
 
         return savedHours;
     }
 
+    // Values for the activity log entry, captured at the time of the change
+    private Map<String, Object> activityPayload(SetLibraryHours libraryHours) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("userId", libraryHours.getCreatedById());
+        payload.put("subject", libraryHours.getSubject());
+        payload.put("gradeLevel", libraryHours.getGradeLevel());
+        payload.put("quarter", libraryHours.getQuarter().getValue());
+        return payload;
+    }
+
     /**
      * Update all student progress records related to this library hours requirement
+     * Called by the outbox dispatcher after a requirement update commits
      */
-    private void updateStudentProgressRecords(SetLibraryHours libraryHours) {
+    public void updateStudentProgressRecords(SetLibraryHours libraryHours) {
         // Find all progress records for this requirement
         List<LibraryRequirementProgress> progressRecords = progressRepository.findByRequirementId(libraryHours.getId());
 
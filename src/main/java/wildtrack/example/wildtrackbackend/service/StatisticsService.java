@@ -1,5 +1,198 @@
 package wildtrack.example.wildtrackbackend.service;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import wildtrack.example.wildtrackbackend.repository.DailyLibraryStatsRepository;
+import wildtrack.example.wildtrackbackend.repository.LibraryRequirementProgressRepository;
+
+/**
+ * Aggregations behind the statistics dashboard charts.
+ * Completion rates and completed requirements are summed from the
+ * daily_library_stats rollup, a few rows per day. Participant charts count
+ * distinct students over a day or a whole month, which per-day rollup counts
+ * cannot be added up to, so they still run one grouped query over
+ * library_requirement_progress with all filters applied in SQL.
+ */
+@Service
 public class StatisticsService {
+    private static final Logger logger = Logger.getLogger(StatisticsService.class.getName());
+
+    @Autowired
+    private LibraryRequirementProgressRepository progressRepository;
+
+    @Autowired
+    private DailyLibraryStatsRepository statsRepository;
+
+    /**
+     * Count unique participating students per day between the given dates.
+     * Days without any participant are not present in the returned map.
+     */
+    public Map<LocalDate, Long> countParticipantsByDay(
+            String gradeLevel,
+            String section,
+            String quarter,
+            String subject,
+            LocalDate startDate,
+            LocalDate endDate) {
+        List<Object[]> rows = progressRepository.countParticipantsByDay(
+                startDate, endDate,
+                normalizeGradeLevel(gradeLevel), emptyToNull(section),
+                emptyToNull(quarter), emptyToNull(subject));
+
+        Map<LocalDate, Long> participantsByDay = new HashMap<>();
+        for (Object[] row : rows) {
+            participantsByDay.put((LocalDate) row[0], ((Number) row[1]).longValue());
+        }
+
+        logger.info("Counted participants for " + participantsByDay.size() + " day(s) between " +
+                startDate + " and " + endDate);
+        return participantsByDay;
+    }
+
+    /**
+     * Count unique participating students per month between the given dates.
+     * Months without any participant are not present in the returned map.
+     */
+    public Map<YearMonth, Long> countParticipantsByMonth(
+            String gradeLevel,
+            String section,
+            String quarter,
+            String subject,
+            LocalDate startDate,
+            LocalDate endDate) {
+        List<Object[]> rows = progressRepository.countParticipantsByMonth(
+                startDate, endDate,
+                normalizeGradeLevel(gradeLevel), emptyToNull(section),
+                emptyToNull(quarter), emptyToNull(subject));
+
+        Map<YearMonth, Long> participantsByMonth = new HashMap<>();
+        for (Object[] row : rows) {
+            YearMonth month = YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+            participantsByMonth.put(month, ((Number) row[2]).longValue());
+        }
+
+        logger.info("Counted participants for " + participantsByMonth.size() + " month(s) between " +
+                startDate + " and " + endDate);
+        return participantsByMonth;
+    }
+
+    /**
+     * Count completed requirements per month between the given dates.
+     * Months without completions are not present in the returned map.
+     */
+    public Map<YearMonth, Long> countCompletedRequirementsByMonth(
+            String gradeLevel,
+            String section,
+            String quarter,
+            String subject,
+            LocalDate startDate,
+            LocalDate endDate) {
+        Map<YearMonth, Long> completedByMonth = new HashMap<>();
+        for (Object[] row : sumRollupByDay(gradeLevel, section, quarter, subject, startDate, endDate)) {
+            long completed = ((Number) row[3]).longValue();
+            if (completed > 0) {
+                completedByMonth.merge(YearMonth.from((LocalDate) row[0]), completed, Long::sum);
+            }
+        }
+
+        return completedByMonth;
+    }
+
+    /**
+     * Completion rate (0-100) for each day between the given dates: requirements
+     * completed out of requirements that received time that day.
+     * Index 0 is startDate; days without requirements have a rate of 0.
+     */
+    public double[] getCompletionRatesByDay(
+            String gradeLevel,
+            String section,
+            String quarter,
+            String subject,
+            LocalDate startDate,
+            LocalDate endDate) {
+        int bucketCount = (int) Math.max(0, ChronoUnit.DAYS.between(startDate, endDate) + 1);
+        return computeCompletionRates(gradeLevel, section, quarter, subject, startDate, endDate,
+                bucketCount, date -> (int) ChronoUnit.DAYS.between(startDate, date));
+    }
+
+    /**
+     * Completion rate (0-100) for each month between the given dates.
+     * Index 0 is the month of startDate; the first and last months only cover
+     * the part inside the date range.
+     */
+    public double[] getCompletionRatesByMonth(
+            String gradeLevel,
+            String section,
+            String quarter,
+            String subject,
+            LocalDate startDate,
+            LocalDate endDate) {
+        YearMonth firstMonth = YearMonth.from(startDate);
+        int bucketCount = (int) Math.max(0, ChronoUnit.MONTHS.between(firstMonth, YearMonth.from(endDate)) + 1);
+        return computeCompletionRates(gradeLevel, section, quarter, subject, startDate, endDate,
+                bucketCount, date -> (int) ChronoUnit.MONTHS.between(firstMonth, YearMonth.from(date)));
+    }
+
+    /**
+     * Load per-day totals from the rollup and fold them into the requested
+     * buckets using plain counter arrays
+     */
+    private double[] computeCompletionRates(
+            String gradeLevel,
+            String section,
+            String quarter,
+            String subject,
+            LocalDate startDate,
+            LocalDate endDate,
+            int bucketCount,
+            ToIntFunction<LocalDate> bucketIndex) {
+        double[] rates = new double[bucketCount];
+        if (bucketCount == 0) {
+            return rates;
+        }
+
+        long[] totals = new long[bucketCount];
+        long[] completed = new long[bucketCount];
+
+        for (Object[] row : sumRollupByDay(gradeLevel, section, quarter, subject, startDate, endDate)) {
+            int index = bucketIndex.applyAsInt((LocalDate) row[0]);
+            totals[index] += ((Number) row[2]).longValue();
+            completed[index] += ((Number) row[3]).longValue();
+        }
+
+        for (int i = 0; i < bucketCount; i++) {
+            rates[i] = totals[i] > 0 ? (completed[i] * 100.0 / totals[i]) : 0;
+        }
+
+        return rates;
+    }
+
+    // Rollup totals per day: date, minutes, requirements touched, completed, participants
+    private List<Object[]> sumRollupByDay(String gradeLevel, String section, String quarter, String subject,
+            LocalDate startDate, LocalDate endDate) {
+        return statsRepository.sumByDay(startDate, endDate, normalizeGradeLevel(gradeLevel),
+                emptyToNull(section), emptyToNull(subject), emptyToNull(quarter));
+    }
+
+    // "All Grades" and blank values mean no grade filter
+    private String normalizeGradeLevel(String gradeLevel) {
+        if (gradeLevel == null || gradeLevel.isEmpty() || "All Grades".equals(gradeLevel)) {
+            return null;
+        }
+        return gradeLevel;
+    }
 
+    private String emptyToNull(String value) {
+        return (value == null || value.isEmpty()) ? null : value;
+    }
 }
@@ -0,0 +1,283 @@
+package wildtrack.example.wildtrackbackend.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import wildtrack.example.wildtrackbackend.entity.User;
+import wildtrack.example.wildtrackbackend.repository.UserRepository;
+
+/**
+ * In-memory index of students by grade and section.
+ * Loaded from the users table on first use and kept current by UserService on
+ * register, update and delete, so filtered lists and counts need no database
+ * round trip. Changes are applied once the writing transaction commits, so a
+ * rolled-back update never reaches the directory. Readers always see an
+ * immutable snapshot; writers replace it.
+ */
+@Component
+public class StudentDirectory {
+    private static final Logger logger = Logger.getLogger(StudentDirectory.class.getName());
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Compact view of a student holding only what the directory lookups need
+     */
+    public static final class StudentEntry {
+        private final Long id;
+        private final String idNumber;
+        private final String grade;
+        private final String section;
+        private final String firstName;
+        private final String middleName;
+        private final String lastName;
+
+        StudentEntry(User user) {
+            this.id = user.getId();
+            this.idNumber = user.getIdNumber();
+            this.grade = user.getGrade();
+            this.section = user.getSection();
+            this.firstName = user.getFirstName();
+            this.middleName = user.getMiddleName();
+            this.lastName = user.getLastName();
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getIdNumber() {
+            return idNumber;
+        }
+
+        public String getGrade() {
+            return grade;
+        }
+
+        public String getSection() {
+            return section;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+
+        public String getMiddleName() {
+            return middleName;
+        }
+
+        public String getLastName() {
+            return lastName;
+        }
+
+        public String getFullName() {
+            return firstName + " " + lastName;
+        }
+    }
+
+    /**
+     * Students matching the optional grade level and section filters.
+     * Grade level may be given as "7" or "Grade 7"; blank or "All Grades" matches all.
+     */
+    public List<StudentEntry> findStudents(String gradeLevel, String section) {
+        Snapshot current = getSnapshot();
+        List<String> grades = gradeKeys(gradeLevel);
+        String sectionKey = emptyToNull(section);
+
+        if (grades == null && sectionKey == null) {
+            return new ArrayList<>(current.byId.values());
+        }
+
+        List<StudentEntry> result = new ArrayList<>();
+        for (Map<String, List<StudentEntry>> sections : gradeSections(current, grades)) {
+            if (sectionKey != null) {
+                result.addAll(sections.getOrDefault(sectionKey, Collections.emptyList()));
+            } else {
+                for (List<StudentEntry> entries : sections.values()) {
+                    result.addAll(entries);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Number of students matching the optional grade level and section filters
+     */
+    public long countStudents(String gradeLevel, String section) {
+        Snapshot current = getSnapshot();
+        List<String> grades = gradeKeys(gradeLevel);
+        String sectionKey = emptyToNull(section);
+
+        if (grades == null && sectionKey == null) {
+            return current.byId.size();
+        }
+
+        long count = 0;
+        for (Map<String, List<StudentEntry>> sections : gradeSections(current, grades)) {
+            if (sectionKey != null) {
+                count += sections.getOrDefault(sectionKey, Collections.emptyList()).size();
+            } else {
+                for (List<StudentEntry> entries : sections.values()) {
+                    count += entries.size();
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The student with the given ID number, if they are in the directory
+     */
+    public Optional<StudentEntry> findByIdNumber(String idNumber) {
+        if (idNumber == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(getSnapshot().byIdNumber.get(idNumber));
+    }
+
+    /**
+     * Add or refresh a user in the directory once the current transaction
+     * commits; non-students are removed
+     */
+    public void put(User user) {
+        if (user == null || user.getId() == null) {
+            return;
+        }
+        // Copy the fields now; the entity may change before commit
+        Long id = user.getId();
+        StudentEntry entry = "Student".equals(user.getRole()) ? new StudentEntry(user) : null;
+        afterCommit(() -> replace(id, entry));
+    }
+
+    /**
+     * Drop a user from the directory once the current transaction commits
+     */
+    public void remove(Long id) {
+        if (id == null) {
+            return;
+        }
+        afterCommit(() -> replace(id, null));
+    }
+
+    /**
+     * Forget the current index; it is reloaded on the next lookup
+     */
+    public synchronized void invalidate() {
+        snapshot = null;
+    }
+
+    // Store or drop one entry in a new snapshot
+    private synchronized void replace(Long id, StudentEntry entry) {
+        if (snapshot == null || (entry == null && !snapshot.byId.containsKey(id))) {
+            return;
+        }
+        Map<Long, StudentEntry> entries = new LinkedHashMap<>(snapshot.byId);
+        if (entry != null) {
+            entries.put(id, entry);
+        } else {
+            entries.remove(id);
+        }
+        snapshot = new Snapshot(entries);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                Map<Long, StudentEntry> entries = new LinkedHashMap<>();
+                for (User student : userRepository.findByRole("Student")) {
+                    entries.put(student.getId(), new StudentEntry(student));
+                }
+                snapshot = new Snapshot(entries);
+                logger.info("Loaded student directory with " + entries.size() + " student(s)");
+            }
+            return snapshot;
+        }
+    }
+
+    // Section maps for the requested grades, or for every grade when grades is null
+    private List<Map<String, List<StudentEntry>>> gradeSections(Snapshot current, List<String> grades) {
+        if (grades == null) {
+            return new ArrayList<>(current.byGrade.values());
+        }
+        List<Map<String, List<StudentEntry>>> result = new ArrayList<>();
+        for (String grade : grades) {
+            Map<String, List<StudentEntry>> sections = current.byGrade.get(grade);
+            if (sections != null) {
+                result.add(sections);
+            }
+        }
+        return result;
+    }
+
+    // "Grade 7" matches grades stored either as "Grade 7" or as "7"
+    static List<String> gradeKeys(String gradeLevel) {
+        if (gradeLevel == null || gradeLevel.isEmpty() || "All Grades".equals(gradeLevel)) {
+            return null;
+        }
+        if (gradeLevel.startsWith("Grade ")) {
+            return List.of(gradeLevel, gradeLevel.substring("Grade ".length()));
+        }
+        return List.of(gradeLevel);
+    }
+
+    private String emptyToNull(String value) {
+        return (value == null || value.isEmpty()) ? null : value;
+    }
+
+    /**
+     * Immutable index built from one set of entries
+     */
+    private static final class Snapshot {
+        private final Map<Long, StudentEntry> byId;
+        private final Map<String, StudentEntry> byIdNumber;
+        private final Map<String, Map<String, List<StudentEntry>>> byGrade;
+
+        Snapshot(Map<Long, StudentEntry> entries) {
+            this.byId = Collections.unmodifiableMap(entries);
+            Map<String, StudentEntry> idNumbers = new HashMap<>();
+            Map<String, Map<String, List<StudentEntry>>> index = new HashMap<>();
+            for (StudentEntry entry : entries.values()) {
+                if (entry.getIdNumber() != null) {
+                    idNumbers.put(entry.getIdNumber(), entry);
+                }
+                index.computeIfAbsent(entry.getGrade(), grade -> new HashMap<>())
+                        .computeIfAbsent(entry.getSection(), section -> new ArrayList<>())
+                        .add(entry);
+            }
+            this.byIdNumber = idNumbers;
+            this.byGrade = index;
+        }
+    }
+}
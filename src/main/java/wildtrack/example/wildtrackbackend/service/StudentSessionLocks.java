@@ -0,0 +1,55 @@
+package wildtrack.example.wildtrackbackend.service;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Striped locks keyed by student ID number.
+ * Time-ins for the same student run one at a time on this node, so a
+ * double-tap at the kiosk sees the first session instead of racing it; other
+ * students only wait when they hash to the same stripe. ReentrantLock rather
+ * than synchronized keeps virtual threads from pinning their carrier while
+ * they wait on the database. Across nodes the unique index on
+ * library_hours.open_id_number is the guard.
+ */
+@Component
+public class StudentSessionLocks {
+
+    @Value("${wildtrack.time-in.lock-stripes:64}")
+    private int stripeCount;
+
+    private ReentrantLock[] stripes;
+
+    @PostConstruct
+    public void init() {
+        stripes = new ReentrantLock[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Run an action while holding the student's stripe
+     */
+    public <T> T callLocked(String idNumber, Supplier<T> action) {
+        ReentrantLock lock = stripes[Math.floorMod(String.valueOf(idNumber).hashCode(), stripes.length)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void runLocked(String idNumber, Runnable action) {
+        callLocked(idNumber, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
@@ -2,8 +2,9 @@ package wildtrack.example.wildtrackbackend.service;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import wildtrack.example.wildtrackbackend.entity.LibraryHours;
@@ -20,29 +21,49 @@ public class TimeInService {
         private static final int OPENING_HOUR = 8; // 8:00 AM
         private static final int CLOSING_HOUR = 17; // 5:00 PM
 
+        private static final String ALREADY_TIMED_IN = "You already have a time-in recorded without a time-out. Please record a time-out before clocking in again.";
+
         @Autowired
         private LibraryHoursRepository libraryHoursRepository;
 
         @Autowired
         private TimeInRepository timeInRepository;
 
+        @Autowired
+        private OpenSessionCache openSessionCache;
+
+        @Autowired
+        private OccupancyTracker occupancyTracker;
+
+        @Autowired
+        private StudentSessionLocks studentSessionLocks;
+
+        /**
+         * Record a time-in. Runs under the student's stripe lock so concurrent taps
+         * on this node are serialized; the unique index on open_id_number rejects a
+         * second open session from any other node.
+         */
         public void recordTimeIn(String idNumber) {
+                recordTimeIn(idNumber, LocalDateTime.now(PHILIPPINES_ZONE));
+        }
+
+        /**
+         * Record a time-in that happened at the given Manila time, e.g. a scan
+         * buffered by a kiosk. Returns the new session.
+         */
+        public LibraryHours recordTimeIn(String idNumber, LocalDateTime currentTime) {
                 // First, check if user has any incomplete sessions requiring book assignment
-                List<LibraryHours> incompleteSessionsList = libraryHoursRepository
-                                .findByIdNumberAndRequiresBookAssignmentTrue(idNumber);
+                long incompleteSessions = libraryHoursRepository.countByIdNumberAndRequiresBookAssignmentTrue(idNumber);
 
-                if (!incompleteSessionsList.isEmpty()) {
+                if (incompleteSessions > 0) {
                         // User has incomplete sessions, prevent time-in and notify
                         throw new RuntimeException(
-                                        "You have " + incompleteSessionsList.size() +
+                                        "You have " + incompleteSessions +
                                                         " previous library session(s) that require a book assignment. "
                                                         +
                                                         "Please add a book to these sessions from your library hours page before timing in again.");
                 }
 
-                // Check current time in Philippines timezone
-                LocalDateTime currentTime = LocalDateTime.now(PHILIPPINES_ZONE);
-
                 // Create opening and closing times for today
                 LocalDateTime openingTime = LocalDateTime.of(
                                 currentTime.getYear(),
@@ -73,14 +94,15 @@ public class TimeInService {
                                                         + formattedTime);
                 }
 
+                return studentSessionLocks.callLocked(idNumber, () -> openSession(idNumber, currentTime));
+        }
+
+        private LibraryHours openSession(String idNumber, LocalDateTime currentTime) {
                 // Check for an open time-in record
-                LibraryHours openTimeIn = libraryHoursRepository.findLatestByIdNumber(idNumber)
-                                .filter(libraryHours -> libraryHours.getTimeOut() == null)
-                                .orElse(null);
+                LibraryHours openTimeIn = openSessionCache.findOpenSession(idNumber).orElse(null);
 
                 if (openTimeIn != null) {
-                        throw new RuntimeException(
-                                        "You already have a time-in recorded without a time-out. Please record a time-out before clocking in again.");
+                        throw new RuntimeException(ALREADY_TIMED_IN);
                 }
 
                 // Create a new time-in record with the Philippine timezone
@@ -88,11 +110,26 @@ public class TimeInService {
                 libraryHours.setIdNumber(idNumber);
                 libraryHours.setTimeIn(currentTime);
                 libraryHours.setRequiresBookAssignment(false); // Initialize as false
-                libraryHoursRepository.save(libraryHours);
+
+                LibraryHours savedHours;
+                try {
+                        savedHours = libraryHoursRepository.save(libraryHours);
+                } catch (DataIntegrityViolationException e) {
+                        // Another node opened a session first; that session stands
+                        openSessionCache.evict(idNumber);
+                        throw new RuntimeException(ALREADY_TIMED_IN);
+                }
+                openSessionCache.sessionOpened(savedHours);
+                occupancyTracker.studentEntered(idNumber);
+                return savedHours;
         }
 
         public long getActiveStudentsCount() {
-                // Return count of students who have timed in but not timed out
-                return timeInRepository.countByTimeOutIsNull();
+                // Students who have timed in but not timed out, from the in-memory tracker
+                return occupancyTracker.count(null, null);
+        }
+
+        public long getActiveStudentsCount(String gradeLevel, String section) {
+                return occupancyTracker.count(gradeLevel, section);
         }
 }
\ No newline at end of file
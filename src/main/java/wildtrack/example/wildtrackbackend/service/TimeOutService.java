@@ -23,45 +23,18 @@ public class TimeOutService {
     @Autowired
     private LibraryRequirementProgressService libraryRequirementProgressService;
 
+    @Autowired
+    private OpenSessionCache openSessionCache;
+
+    @Autowired
+    private OccupancyTracker occupancyTracker;
+
     /**
      * Record time-out for a student, ensuring they have a book assigned
      */
     @Transactional
     public LibraryHours recordTimeOut(String idNumber) {
-        // Find the latest time-in record without a time-out
-        Optional<LibraryHours> openTimeInOpt = libraryHoursRepository
-                .findByIdNumberAndTimeOutIsNullOrderByTimeInDesc(idNumber)
-                .stream()
-                .findFirst();
-
-        if (openTimeInOpt.isEmpty()) {
-            throw new RuntimeException("No open time-in record found. Please time-in first.");
-        }
-
-        LibraryHours openTimeIn = openTimeInOpt.get();
-
-        // Check if a book has been assigned to this library session
-        if (openTimeIn.getBookTitle() == null || openTimeIn.getBookTitle().trim().isEmpty()) {
-            throw new RuntimeException("Please assign a book to your library session before timing out.");
-        }
-
-        // Record time-out with the Philippine timezone
-        openTimeIn.setTimeOut(LocalDateTime.now(PHILIPPINES_ZONE));
-
-        // Calculate minutes spent
-        long minutes = java.time.Duration.between(openTimeIn.getTimeIn(), openTimeIn.getTimeOut()).toMinutes();
-        openTimeIn.setMinutesCounted((int) minutes);
-
-        // Set isCounted to true to ensure it's included in reports
-        openTimeIn.setIsCounted(true);
-
-        // Save the updated record
-        LibraryHours savedRecord = libraryHoursRepository.save(openTimeIn);
-
-        // Update library requirement progress with this time
-        libraryRequirementProgressService.recordLibraryTime(savedRecord.getId());
-
-        return savedRecord;
+        return recordTimeOut(idNumber, null, LocalDateTime.now(PHILIPPINES_ZONE));
     }
 
     /**
@@ -70,11 +43,17 @@ public class TimeOutService {
      */
     @Transactional
     public LibraryHours recordTimeOutWithSubject(String idNumber, String subject) {
+        return recordTimeOut(idNumber, subject, LocalDateTime.now(PHILIPPINES_ZONE));
+    }
+
+    /**
+     * Record a time-out that happened at the given Manila time, e.g. a scan
+     * buffered by a kiosk. The subject is set when one is given.
+     */
+    @Transactional
+    public LibraryHours recordTimeOut(String idNumber, String subject, LocalDateTime timeOut) {
         // Find the latest time-in record without a time-out
-        Optional<LibraryHours> openTimeInOpt = libraryHoursRepository
-                .findByIdNumberAndTimeOutIsNullOrderByTimeInDesc(idNumber)
-                .stream()
-                .findFirst();
+        Optional<LibraryHours> openTimeInOpt = openSessionCache.findOpenSession(idNumber);
 
         if (openTimeInOpt.isEmpty()) {
             throw new RuntimeException("No open time-in record found. Please time-in first.");
@@ -87,9 +66,15 @@ public class TimeOutService {
             throw new RuntimeException("Please assign a book to your library session before timing out.");
         }
 
-        // Record time-out and subject with the Philippine timezone
-        openTimeIn.setTimeOut(LocalDateTime.now(PHILIPPINES_ZONE));
-        openTimeIn.setSubject(subject);
+        if (timeOut.isBefore(openTimeIn.getTimeIn())) {
+            throw new RuntimeException("Time-out cannot be earlier than the time-in of the open session.");
+        }
+
+        // Record time-out (and subject) with the Philippine timezone
+        openTimeIn.setTimeOut(timeOut);
+        if (subject != null) {
+            openTimeIn.setSubject(subject);
+        }
 
         // Calculate minutes spent
         long minutes = java.time.Duration.between(openTimeIn.getTimeIn(), openTimeIn.getTimeOut()).toMinutes();
@@ -100,6 +85,8 @@ public class TimeOutService {
 
         // Save the updated record
         LibraryHours savedRecord = libraryHoursRepository.save(openTimeIn);
+        openSessionCache.evict(idNumber);
+        occupancyTracker.studentLeft(idNumber);
 
         // Update library requirement progress with this time
         libraryRequirementProgressService.recordLibraryTime(savedRecord.getId());
@@ -0,0 +1,199 @@
+package wildtrack.example.wildtrackbackend.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-memory unread notification counts and the SSE connections that follow them.
+ * NotificationService fills the counts on first read and adjusts or invalidates
+ * them after each committed change; connected clients get the new count pushed.
+ * Changes made on another instance don't reach this node's counts, so a count
+ * is only served for ttlMs after it was read from the database, and at most
+ * maxEntries users are cached at once.
+ * Emitters are async, so an idle connection holds no request thread, and pushes
+ * are written from virtual threads.
+ */
+@Component
+public class UnreadCountRegistry {
+    private static final Logger logger = Logger.getLogger(UnreadCountRegistry.class.getName());
+
+    @Value("${wildtrack.notifications.stream.timeout-ms:1800000}")
+    private long streamTimeoutMs;
+
+    @Value("${wildtrack.notifications.unread-count.ttl-ms:30000}")
+    private long ttlMs;
+
+    @Value("${wildtrack.notifications.unread-count.max-entries:10000}")
+    private int maxEntries;
+
+    private final Map<Long, CachedCount> counts = new ConcurrentHashMap<>();
+    // Version values only grow, so a dropped version is not mistaken for a later one
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+    private final AtomicLong versionSource = new AtomicLong();
+    private final Map<Long, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Marks the state a count was read against; a count read before a later
+     * change must not be cached
+     */
+    public record Stamp(long version) {
+    }
+
+    private record CachedCount(long count, long expiresAt) {
+
+        boolean isExpired() {
+            return System.nanoTime() - expiresAt > 0;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        emitters.values().forEach(list -> list.forEach(SseEmitter::complete));
+        executor.shutdown();
+    }
+
+    public Long getCachedCount(Long userId) {
+        CachedCount cached = counts.get(userId);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.isExpired()) {
+            counts.remove(userId, cached);
+            return null;
+        }
+        return cached.count();
+    }
+
+    public Stamp stamp(Long userId) {
+        return new Stamp(versions.getOrDefault(userId, 0L));
+    }
+
+    /**
+     * Cache a count read from the database unless the user's notifications
+     * changed since the stamp was taken
+     */
+    public void cache(Long userId, Stamp stamp, long count) {
+        if (counts.size() >= maxEntries && !counts.containsKey(userId)) {
+            return;
+        }
+        versions.compute(userId, (id, version) -> {
+            if (stamp.version() == (version != null ? version : 0L)) {
+                counts.put(id, new CachedCount(count, System.nanoTime() + ttlMs * 1_000_000));
+            }
+            return version;
+        });
+    }
+
+    /**
+     * Apply a known change to a cached count. Returns the new count, or null
+     * when the user has no cached count.
+     */
+    public Long adjust(Long userId, long delta) {
+        versions.put(userId, versionSource.incrementAndGet());
+        CachedCount adjusted = counts.computeIfPresent(userId, (id, cached) -> cached.isExpired()
+                ? null
+                : new CachedCount(Math.max(0, cached.count() + delta), cached.expiresAt()));
+        return adjusted != null ? adjusted.count() : null;
+    }
+
+    public void invalidate(Long userId) {
+        versions.put(userId, versionSource.incrementAndGet());
+        counts.remove(userId);
+    }
+
+    // Drop expired counts, and the versions of users with no cached count
+    @Scheduled(fixedDelayString = "${wildtrack.notifications.unread-count.ttl-ms:30000}")
+    public void evictExpired() {
+        counts.values().removeIf(CachedCount::isExpired);
+        versions.keySet().removeIf(userId -> !counts.containsKey(userId));
+    }
+
+    public boolean hasSubscribers(Long userId) {
+        return emitters.containsKey(userId);
+    }
+
+    /**
+     * Open a stream for a user and send the current count straight away
+     */
+    public SseEmitter subscribe(Long userId, long currentCount) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        emitters.compute(userId, (id, list) -> {
+            List<SseEmitter> userEmitters = list != null ? list : new CopyOnWriteArrayList<>();
+            userEmitters.add(emitter);
+            return userEmitters;
+        });
+
+        emitter.onCompletion(() -> removeEmitter(userId, emitter));
+        emitter.onTimeout(() -> removeEmitter(userId, emitter));
+        emitter.onError(error -> removeEmitter(userId, emitter));
+
+        send(userId, emitter, currentCount);
+        return emitter;
+    }
+
+    /**
+     * Push a count to every open stream of the user
+     */
+    public void publish(Long userId, long count) {
+        List<SseEmitter> userEmitters = emitters.get(userId);
+        if (userEmitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : userEmitters) {
+            executor.execute(() -> send(userId, emitter, count));
+        }
+    }
+
+    public int getConnectionCount() {
+        return emitters.values().stream().mapToInt(List::size).sum();
+    }
+
+    // Comment lines keep proxies from closing idle streams and expose dead ones
+    @Scheduled(fixedDelayString = "${wildtrack.notifications.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        emitters.forEach((userId, userEmitters) -> {
+            for (SseEmitter emitter : userEmitters) {
+                executor.execute(() -> {
+                    try {
+                        emitter.send(SseEmitter.event().comment("keepalive"));
+                    } catch (IOException | IllegalStateException e) {
+                        removeEmitter(userId, emitter);
+                    }
+                });
+            }
+        });
+    }
+
+    private void send(Long userId, SseEmitter emitter, long count) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name("unread-count")
+                    .data(Map.of("unreadCount", count)));
+        } catch (IOException | IllegalStateException e) {
+            logger.fine("Dropping notification stream for user " + userId + ": " + e.getMessage());
+            removeEmitter(userId, emitter);
+        }
+    }
+
+    private void removeEmitter(Long userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (id, list) -> {
+            list.remove(emitter);
+            return list.isEmpty() ? null : list;
+        });
+    }
+}
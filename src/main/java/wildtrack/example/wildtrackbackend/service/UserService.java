@@ -23,6 +23,12 @@ public class UserService {
     @Autowired
     private PasswordValidationService passwordValidationService;
 
+    @Autowired
+    private StudentDirectory studentDirectory;
+
+    @Autowired
+    private NotificationService notificationService;
+
     public List<User> getTeachersByGradeLevel(String gradeLevel) {
         // Find teachers who have the specified grade level assigned
         return userRepository.findByRoleAndGrade("Teacher", gradeLevel);
@@ -121,34 +127,15 @@ public class UserService {
     /**
      * Returns a filtered list of students based on grade level and section
      */
-    public List<User> getStudentsByGradeAndSection(String gradeLevel, String section) {
-        List<User> allStudents = userRepository.findByRole("Student");
-
-        // Apply filters if provided
-        return allStudents.stream()
-                .filter(student -> (gradeLevel == null || gradeLevel.isEmpty() || gradeLevel.equals(student.getGrade()))
-                        &&
-                        (section == null || section.isEmpty() || section.equals(student.getSection())))
-                .toList();
+    public List<StudentDirectory.StudentEntry> getStudentsByGradeAndSection(String gradeLevel, String section) {
+        return studentDirectory.findStudents(gradeLevel, section);
     }
 
     /**
      * Returns the count of students based on grade level and section
      */
     public long getStudentsCountByGradeAndSection(String gradeLevel, String section) {
-        List<User> allStudents = userRepository.findByRole("Student");
-
-        // If no filters, return all students
-        if ((gradeLevel == null || gradeLevel.isEmpty()) && (section == null || section.isEmpty())) {
-            return allStudents.size();
-        }
-
-        // Apply filters
-        return allStudents.stream()
-                .filter(student -> (gradeLevel == null || gradeLevel.isEmpty() || gradeLevel.equals(student.getGrade()))
-                        &&
-                        (section == null || section.isEmpty() || section.equals(student.getSection())))
-                .count();
+        return studentDirectory.countStudents(gradeLevel, section);
     }
 
     public User saveUser(User user) throws Exception {
@@ -195,6 +182,7 @@ public class UserService {
 
         // Save user to database
         User savedUser = userRepository.save(user);
+        studentDirectory.put(savedUser);
 
         // Set back the clear text password for the return value
         // This doesn't affect what's saved in the database
@@ -252,7 +240,12 @@ public class UserService {
         existingUser.setPosition(updatedUserDetails.getPosition());
         existingUser.setDepartment(updatedUserDetails.getDepartment());
 
-        return userRepository.save(existingUser);
+        User savedUser = userRepository.save(existingUser);
+        studentDirectory.put(savedUser);
+        // Grade and role decide which broadcasts count as unread
+        notificationService.refreshUnreadCount(savedUser.getId());
+
+        return savedUser;
     }
 
     public boolean existsById(Long id) {
@@ -261,6 +254,8 @@ public class UserService {
 
     public void deleteUserById(Long id) {
         userRepository.deleteById(id);
+        studentDirectory.remove(id);
+        notificationService.refreshUnreadCount(id);
     }
 
     public User getUserByIdNumber(String idNumber) {